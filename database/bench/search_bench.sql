@@ -0,0 +1,78 @@
+-- ==============================================
+-- Lead search benchmark: legacy ILIKE vs trigram ILIKE vs full-text
+-- ==============================================
+-- Usage (against a scratch copy of the schema, never production):
+--   psql -d leadshub -v rows=3000000 -f database/bench/search_bench.sql
+--
+-- Everything runs inside one transaction that is rolled back at the end.
+-- Compare "Execution Time" and "Buffers" of the three EXPLAIN blocks.
+
+\if :{?rows}
+\else
+    \set rows 3000000
+\endif
+
+\timing on
+
+BEGIN;
+
+INSERT INTO public.users (id, email, password_hash)
+VALUES ('00000000-0000-0000-0000-00000000be4c', 'bench@leadshub.local', 'x');
+
+INSERT INTO public.leads (user_id, name, email, status, company, notes)
+SELECT
+    '00000000-0000-0000-0000-00000000be4c',
+    first_name || ' ' || last_name,
+    lower(first_name) || '.' || lower(last_name) || i || '@' || domain,
+    (ARRAY['New', 'Engaged', 'Proposal Sent', 'Closed-Won', 'Closed-Lost'])[1 + i % 5]::lead_status,
+    company,
+    'Met at ' || company || ' event, follow up about ' || topic || '.'
+FROM generate_series(1, :rows) AS i,
+LATERAL (
+    SELECT
+        (ARRAY['John', 'Sarah', 'Michael', 'Lisa', 'David', 'Thandi', 'Pieter', 'Aisha', 'Sipho', 'Emma'])[1 + i % 10] AS first_name,
+        (ARRAY['Smith', 'Johnson', 'Brown', 'van der Berg', 'Nkosi', 'Dlamini', 'Botha', 'Naidoo', 'Mokoena', 'Jacobs',
+               'Pillay', 'Khumalo', 'Venter', 'Ndlovu', 'Coetzee'])[1 + (i / 10) % 15] AS last_name,
+        (ARRAY['techinnovate.co.za', 'greenfields.com', 'startupza.io', 'capefinance.co.za', 'jhblogistics.com'])[1 + (i / 7) % 5] AS domain,
+        (ARRAY['Tech Innovate', 'GreenFields Ltd', 'StartupZA', 'Cape Finance', 'JHB Logistics', 'Karoo Mining',
+               'Durban Ports', 'Highveld Agri'])[1 + (i / 3) % 8] || ' ' || (i % 997) AS company,
+        (ARRAY['pricing', 'renewal', 'enterprise plan', 'a demo', 'integration', 'onboarding'])[1 + (i / 11) % 6] AS topic
+) AS words;
+
+ANALYZE public.leads;
+
+-- 1. Legacy path: ILIKE with no usable index (trigram indexes dropped inside a savepoint)
+SAVEPOINT legacy;
+DROP INDEX idx_leads_name_trgm;
+DROP INDEX idx_leads_email_trgm;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, name, email, created_at
+FROM public.leads
+WHERE user_id = '00000000-0000-0000-0000-00000000be4c'
+  AND (name ILIKE '%' || 'nkosi1234' || '%' OR email ILIKE '%' || 'nkosi1234' || '%')
+ORDER BY created_at DESC, id DESC
+LIMIT 10;
+
+ROLLBACK TO SAVEPOINT legacy;
+
+-- 2. search_mode=ilike: same predicate, served by the trigram indexes
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, name, email, created_at
+FROM public.leads
+WHERE user_id = '00000000-0000-0000-0000-00000000be4c'
+  AND (name ILIKE '%' || 'nkosi1234' || '%' OR email ILIKE '%' || 'nkosi1234' || '%')
+ORDER BY created_at DESC, id DESC
+LIMIT 10;
+
+-- 3. search_mode=fulltext: prefix match over name/email/company/notes, ranked
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, name, email, created_at
+FROM public.leads
+WHERE user_id = '00000000-0000-0000-0000-00000000be4c'
+  AND search_vector @@ to_tsquery('simple', 'nkosi1234:*')
+ORDER BY ts_rank_cd(search_vector, to_tsquery('simple', 'nkosi1234:*')) DESC,
+         created_at DESC, id DESC
+LIMIT 10;
+
+ROLLBACK;
@@ -0,0 +1,39 @@
+-- ==============================================
+-- Plan check for the UserRepository auth queries
+-- ==============================================
+-- Usage: psql -d leadshub -f database/checks/auth_queries.sql
+-- Runs in a transaction that is rolled back.
+--
+-- Expect:
+--   1. login lookup: Index Scan using users_email_lower_key (no Seq Scan)
+--   2. sign-up: the only statement registration issues (the password is hashed
+--      first, nothing is looked up); "Conflict Resolution: NOTHING" and, for an
+--      address already taken in another letter case, 0 rows (-> 409 in AuthController)
+
+BEGIN;
+
+-- Enough rows that the planner prefers the index over a scan of a tiny table
+INSERT INTO public.users (email, password_hash)
+SELECT 'user' || i || '@plancheck.local', 'x'
+FROM generate_series(1, 10000) AS i;
+
+-- Stored in mixed case, as rows written outside the app can be
+INSERT INTO public.users (email, password_hash)
+VALUES ('Taken@PlanCheck.local', 'x');
+
+ANALYZE public.users;
+
+-- 1. UserRepository.findByEmail
+EXPLAIN
+SELECT id, email, password_hash, created_at, updated_at
+FROM public.users
+WHERE LOWER(email) = 'demo@leadshub.com';
+
+-- 2. UserRepository.insertIfAbsent with that address, lower-cased like AuthController does
+EXPLAIN (ANALYZE, COSTS OFF)
+INSERT INTO public.users (id, email, password_hash)
+VALUES (gen_random_uuid(), 'taken@plancheck.local', 'x')
+ON CONFLICT DO NOTHING
+RETURNING id, email, password_hash, created_at, updated_at;
+
+ROLLBACK;
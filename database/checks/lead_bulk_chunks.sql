@@ -0,0 +1,63 @@
+-- ==============================================
+-- Plan check for the bulk update/delete batches
+-- ==============================================
+-- Usage: psql -d leadshub -f database/checks/lead_bulk_chunks.sql
+-- Runs in a transaction that is rolled back.
+--
+-- Plans the batch query of LeadRepositoryImpl.chunk (WHERE ... AND id > :afterId
+-- ORDER BY id LIMIT :limit) for filters without search, and fails unless the plan
+-- reads an index in id order from (user_id, afterId) on: no Sort, and user_id in
+-- the index condition rather than a filter over every user's rows. Expect one
+-- NOTICE per query, then "all N batch queries walk an index".
+
+BEGIN;
+
+INSERT INTO public.users (id, email, password_hash)
+VALUES ('00000000-0000-4000-8000-000000000001', 'bulk@plancheck.local', 'x'),
+       ('00000000-0000-4000-8000-000000000002', 'bulk-other@plancheck.local', 'x');
+
+INSERT INTO public.leads (user_id, name, email, status, archived, created_at)
+SELECT ('00000000-0000-4000-8000-00000000000' || (1 + i % 2))::uuid,
+       'Lead ' || i,
+       'lead' || i || '@plancheck.local',
+       (enum_range(NULL::lead_status))[1 + i % 5],
+       i % 5 >= 3 AND i % 3 = 0,
+       now() - make_interval(mins => i)
+FROM generate_series(1, 100000) AS i;
+
+ANALYZE public.leads;
+
+DO $$
+DECLARE
+    predicate TEXT;
+    archived_filter TEXT;
+    query TEXT;
+    plan TEXT;
+    checked INT := 0;
+BEGIN
+    FOREACH predicate IN ARRAY ARRAY[
+        '',
+        ' AND status = CAST(''Engaged'' AS lead_status)',
+        ' AND created_at >= now() - interval ''30 days'''
+    ] LOOP
+        FOREACH archived_filter IN ARRAY ARRAY[' AND NOT archived', ''] LOOP
+            query := 'SELECT id FROM public.leads WHERE user_id = ''00000000-0000-4000-8000-000000000001'''
+                || archived_filter || predicate
+                || ' AND id > ''80000000-0000-0000-0000-000000000000'' ORDER BY id LIMIT 1000';
+
+            EXECUTE 'EXPLAIN (FORMAT JSON, COSTS OFF) ' || query INTO plan;
+
+            IF plan LIKE '%"Node Type": "Sort"%' OR plan NOT LIKE '%"Index Cond": "((user_id = %' THEN
+                RAISE EXCEPTION 'batch query does not walk an index: % %', query, plan;
+            END IF;
+
+            RAISE NOTICE 'index walk: %', query;
+            checked := checked + 1;
+        END LOOP;
+    END LOOP;
+
+    RAISE NOTICE 'all % batch queries walk an index', checked;
+END
+$$;
+
+ROLLBACK;
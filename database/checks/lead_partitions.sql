@@ -0,0 +1,68 @@
+-- ==============================================
+-- Plan check for the hot/archive lead partitions
+-- ==============================================
+-- Usage: psql -d leadshub -f database/checks/lead_partitions.sql
+-- Runs in a transaction that is rolled back.
+--
+-- Plans the GET /api/leads page and count queries as LeadSql builds them, with
+-- and without include_archived, and fails if a default query reads leads_archive
+-- or an include_archived one misses it. Expect one NOTICE per query, then
+-- "all N queries read the expected partitions".
+
+BEGIN;
+
+INSERT INTO public.users (id, email, password_hash)
+VALUES ('00000000-0000-4000-8000-000000000001', 'partitions@plancheck.local', 'x');
+
+INSERT INTO public.leads (user_id, name, email, status, archived, created_at, updated_at)
+SELECT '00000000-0000-4000-8000-000000000001',
+       'Lead ' || i,
+       'lead' || i || '@plancheck.local',
+       (enum_range(NULL::lead_status))[1 + i % 5],
+       i % 5 >= 3 AND i % 2 = 0,
+       now() - make_interval(mins => i),
+       now() - make_interval(mins => i)
+FROM generate_series(1, 20000) AS i;
+
+ANALYZE public.leads;
+
+DO $$
+DECLARE
+    predicate TEXT;
+    archived_filter TEXT;
+    query TEXT;
+    plan TEXT;
+    reads_archive BOOLEAN;
+    checked INT := 0;
+BEGIN
+    FOREACH predicate IN ARRAY ARRAY[
+        '',
+        ' AND status = CAST(''Closed-Won'' AS lead_status)',
+        ' AND (name ILIKE ''%Lead 1%'' OR email ILIKE ''%Lead 1%'')'
+    ] LOOP
+        FOREACH archived_filter IN ARRAY ARRAY[' AND NOT archived', ''] LOOP
+            FOREACH query IN ARRAY ARRAY[
+                'SELECT id FROM public.leads WHERE user_id = ''00000000-0000-4000-8000-000000000001'''
+                    || archived_filter || predicate || ' ORDER BY created_at DESC, id DESC LIMIT 20',
+                'SELECT COUNT(*) FROM public.leads WHERE user_id = ''00000000-0000-4000-8000-000000000001'''
+                    || archived_filter || predicate
+            ] LOOP
+                EXECUTE 'EXPLAIN (FORMAT JSON, COSTS OFF) ' || query INTO plan;
+
+                reads_archive := plan LIKE '%"Relation Name": "leads_archive"%';
+                IF reads_archive = (archived_filter <> '') THEN
+                    RAISE EXCEPTION '% leads_archive: %',
+                        CASE WHEN reads_archive THEN 'reads' ELSE 'skips' END, query;
+                END IF;
+
+                RAISE NOTICE '%: %', CASE WHEN reads_archive THEN 'hot + archive' ELSE 'hot only' END, query;
+                checked := checked + 1;
+            END LOOP;
+        END LOOP;
+    END LOOP;
+
+    RAISE NOTICE 'all % queries read the expected partitions', checked;
+END
+$$;
+
+ROLLBACK;
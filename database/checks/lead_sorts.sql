@@ -0,0 +1,69 @@
+-- ==============================================
+-- Plan check for the sorted GET /api/leads pages
+-- ==============================================
+-- Usage: psql -d leadshub -f database/checks/lead_sorts.sql
+-- Runs in a transaction that is rolled back.
+--
+-- Plans LeadRepositoryImpl.findFiltered for every sort_field/sort_order, with and
+-- without a status filter, and fails if any plan contains a Sort or Incremental
+-- Sort node. Expect one NOTICE per combination naming the index it reads, then
+-- "all N sorted pages read in index order".
+
+BEGIN;
+
+-- One large account among smaller ones, so the indexes beat a scan and sort
+INSERT INTO public.users (id, email, password_hash)
+SELECT ('00000000-0000-4000-8000-' || lpad(u::text, 12, '0'))::uuid, 'sort' || u || '@plancheck.local', 'x'
+FROM generate_series(1, 20) AS u;
+
+INSERT INTO public.leads (user_id, name, email, status, company, created_at, updated_at)
+SELECT ('00000000-0000-4000-8000-' || lpad(u::text, 12, '0'))::uuid,
+       'Lead ' || md5(u || '-' || i),
+       'lead' || i || '.' || u || '@plancheck.local',
+       (enum_range(NULL::lead_status))[1 + i % 5],
+       CASE WHEN i % 7 = 0 THEN NULL ELSE 'Company ' || (i % 500) END,
+       now() - make_interval(mins => i),
+       now() - make_interval(mins => (i * 7919) % 100000)
+FROM generate_series(1, 20) AS u,
+     generate_series(1, CASE WHEN u = 1 THEN 50000 ELSE 5000 END) AS i;
+
+ANALYZE public.leads;
+
+DO $$
+DECLARE
+    sort_field TEXT;
+    direction TEXT;
+    status_filter TEXT;
+    query TEXT;
+    plan TEXT;
+    checked INT := 0;
+BEGIN
+    FOREACH sort_field IN ARRAY ARRAY['name', 'email', 'company', 'status', 'created_at', 'updated_at'] LOOP
+        FOREACH direction IN ARRAY ARRAY['ASC', 'DESC'] LOOP
+            FOREACH status_filter IN ARRAY ARRAY['', ' AND status = CAST(''Engaged'' AS lead_status)'] LOOP
+                query := 'SELECT id, user_id, lead_number, display_id, name, email, status,'
+                    || ' company, phone, notes, created_at, updated_at, version'
+                    || ' FROM public.leads'
+                    || ' WHERE user_id = ''00000000-0000-4000-8000-000000000001'' AND NOT archived' || status_filter
+                    || ' ORDER BY ' || sort_field || ' ' || direction || ', id ' || direction
+                    || ' LIMIT 20 OFFSET 100';
+
+                EXECUTE 'EXPLAIN (FORMAT JSON, COSTS OFF) ' || query INTO plan;
+
+                IF plan LIKE '%"Node Type": "Sort"%' OR plan LIKE '%"Node Type": "Incremental Sort"%' THEN
+                    RAISE EXCEPTION 'sorted in memory: %', query;
+                END IF;
+
+                RAISE NOTICE '% % %: %', sort_field, direction,
+                    CASE WHEN status_filter = '' THEN 'all' ELSE 'status' END,
+                    substring(plan FROM '"Index Name": "([a-z_]+)"');
+                checked := checked + 1;
+            END LOOP;
+        END LOOP;
+    END LOOP;
+
+    RAISE NOTICE 'all % sorted pages read in index order', checked;
+END
+$$;
+
+ROLLBACK;
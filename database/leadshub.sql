@@ -2,6 +2,9 @@
 -- LeadsHub - Database Setup
 -- ==============================================
 
+-- Extensions
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- Users Table (Auth)
 CREATE TABLE public.users (
     id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -11,7 +14,8 @@ CREATE TABLE public.users (
     updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
 );
 
-CREATE INDEX idx_users_email ON public.users(email);
+-- Login and sign-up match on LOWER(email); also makes addresses unique regardless of case
+CREATE UNIQUE INDEX users_email_lower_key ON public.users (LOWER(email));
 
 -- Lead Status Enum
 CREATE TYPE lead_status AS ENUM (
@@ -22,10 +26,14 @@ CREATE TYPE lead_status AS ENUM (
     'Closed-Lost'
 );
 
--- Leads Table
+-- Leads Table, LIST-partitioned on archived: leads_hot holds the working set and
+-- leads_archive the closed leads LeadArchiver moved out after archive.after.
+-- Listing queries add "NOT archived" unless include_archived=true, so they only
+-- touch leads_hot. The partition key has to be part of the primary key.
 CREATE TABLE public.leads (
-    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
     user_id UUID NOT NULL REFERENCES public.users(id) ON DELETE CASCADE,
+    -- Reserved in blocks by the application (LeadNumberAllocator); the default covers other inserts
     lead_number SERIAL,
     display_id TEXT,
     name TEXT NOT NULL,
@@ -35,12 +43,65 @@ CREATE TABLE public.leads (
     phone TEXT,
     notes TEXT,
     created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
-    updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
-);
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    -- Optimistic concurrency for PUT /api/leads/{id}; every API update increments it
+    version BIGINT NOT NULL DEFAULT 0,
+    -- search_mode=fulltext; email is also indexed split on '@' and '.' so its parts prefix-match
+    search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(email, '') || ' ' || translate(coalesce(email, ''), '@.', '  ')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(company, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(notes, '')), 'C')
+    ) STORED,
+    -- Set by the archiver, cleared by updates that reopen a lead; flipping it moves the row between partitions
+    archived BOOLEAN NOT NULL DEFAULT false,
+    -- id alone is not enforced unique across partitions; see migration 010
+    PRIMARY KEY (id, archived)
+) PARTITION BY LIST (archived);
+
+CREATE TABLE public.leads_hot PARTITION OF public.leads FOR VALUES IN (false);
+CREATE TABLE public.leads_archive PARTITION OF public.leads FOR VALUES IN (true);
 
-CREATE INDEX idx_leads_user_id ON public.leads(user_id);
-CREATE INDEX idx_leads_status ON public.leads(status);
 CREATE INDEX idx_leads_created_at ON public.leads(created_at DESC);
+-- Keyset pagination: WHERE user_id = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC
+CREATE INDEX idx_leads_user_created_id ON public.leads(user_id, created_at DESC, id DESC);
+-- Sorted pages: ORDER BY <field> <dir>, id <dir> for one user, read in index order
+CREATE INDEX idx_leads_user_name_id ON public.leads(user_id, name, id);
+CREATE INDEX idx_leads_user_email_id ON public.leads(user_id, email, id);
+CREATE INDEX idx_leads_user_company_id ON public.leads(user_id, company, id);
+CREATE INDEX idx_leads_user_status_id ON public.leads(user_id, status, id);
+CREATE INDEX idx_leads_user_updated_id ON public.leads(user_id, updated_at DESC, id DESC);
+-- status filter, newest first
+CREATE INDEX idx_leads_user_status_created_id ON public.leads(user_id, status, created_at DESC, id DESC);
+-- Bulk update/delete by filter: batches of WHERE user_id = ? AND id > ? ORDER BY id
+CREATE INDEX idx_leads_user_id_id ON public.leads(user_id, id);
+-- Search: trigram indexes serve search_mode=ilike, the tsvector index search_mode=fulltext
+CREATE INDEX idx_leads_name_trgm ON public.leads USING GIN (name gin_trgm_ops);
+CREATE INDEX idx_leads_email_trgm ON public.leads USING GIN (email gin_trgm_ops);
+CREATE INDEX idx_leads_search_vector ON public.leads USING GIN (search_vector);
+-- Archiver batches: closed hot leads by age, and archived leads that were reopened
+CREATE INDEX idx_leads_hot_closed_updated ON public.leads_hot(updated_at)
+    WHERE status IN ('Closed-Won', 'Closed-Lost');
+CREATE INDEX idx_leads_archive_reopened ON public.leads_archive(id)
+    WHERE status NOT IN ('Closed-Won', 'Closed-Lost');
+
+-- Per-user lead counts by status, served by GET /api/leads/stats.
+-- Kept current by statement-level triggers on leads (one upsert per status touched,
+-- whatever the number of rows) and repaired per user by reconcile_lead_status_counts(user).
+-- No foreign key: rows must be writable while a user's leads are cascade-deleted.
+CREATE TABLE public.lead_status_counts (
+    user_id UUID NOT NULL,
+    status lead_status NOT NULL,
+    count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, status)
+);
+
+-- Per-user change marker for conditional GETs (ETag). Bumped once per statement
+-- that writes a user's leads, by statement-level triggers on leads.
+CREATE TABLE public.lead_versions (
+    user_id UUID PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
 
 -- Profiles Table
 CREATE TABLE public.profiles (
@@ -60,14 +121,181 @@ BEGIN
 END;
 $$ LANGUAGE plpgsql;
 
+-- Same format as LeadNumberAllocator.displayId: at least five digits, never cut
 CREATE OR REPLACE FUNCTION generate_lead_display_id()
 RETURNS TRIGGER AS $$
 BEGIN
-    NEW.display_id := 'LD-' || LPAD(NEW.lead_number::TEXT, 5, '0');
+    NEW.display_id := 'LD-' || LPAD(NEW.lead_number::TEXT, GREATEST(5, length(NEW.lead_number::TEXT)), '0');
     RETURN NEW;
 END;
 $$ LANGUAGE plpgsql;
 
+-- Planner row estimate for the GET /api/leads filter (count=estimated).
+-- Values are inlined as literals so the per-value statistics for user_id/status apply.
+-- For p_search_mode = 'fulltext', p_search is the tsquery text built by the application.
+CREATE OR REPLACE FUNCTION estimate_leads_count(
+    p_user_id UUID,
+    p_status TEXT,
+    p_search TEXT,
+    p_date_from TIMESTAMPTZ,
+    p_date_to TIMESTAMPTZ,
+    p_search_mode TEXT DEFAULT 'ilike',
+    p_include_archived BOOLEAN DEFAULT false
+)
+RETURNS BIGINT AS $$
+DECLARE
+    query TEXT;
+    plan JSON;
+BEGIN
+    query := format('SELECT 1 FROM public.leads WHERE user_id = %L', p_user_id);
+
+    IF NOT p_include_archived THEN
+        query := query || ' AND NOT archived';
+    END IF;
+    IF p_status IS NOT NULL THEN
+        query := query || format(' AND status = %L::lead_status', p_status);
+    END IF;
+    IF p_search IS NOT NULL AND p_search_mode = 'fulltext' THEN
+        query := query || format(' AND search_vector @@ to_tsquery(''simple'', %L)', p_search);
+    ELSIF p_search IS NOT NULL THEN
+        query := query || format(
+            ' AND (name ILIKE %1$L OR email ILIKE %1$L)', '%' || p_search || '%');
+    END IF;
+    IF p_date_from IS NOT NULL THEN
+        query := query || format(' AND created_at >= %L', p_date_from);
+    END IF;
+    IF p_date_to IS NOT NULL THEN
+        query := query || format(' AND created_at <= %L', p_date_to);
+    END IF;
+
+    EXECUTE 'EXPLAIN (FORMAT JSON) ' || query INTO plan;
+    RETURN (plan -> 0 -> 'Plan' ->> 'Plan Rows')::BIGINT;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION apply_lead_status_counts()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO public.lead_status_counts AS c (user_id, status, count)
+        SELECT user_id, status, COUNT(*)
+        FROM new_rows
+        GROUP BY user_id, status
+        ORDER BY user_id, status
+        ON CONFLICT (user_id, status) DO UPDATE SET count = c.count + EXCLUDED.count;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO public.lead_status_counts AS c (user_id, status, count)
+        SELECT user_id, status, -COUNT(*)
+        FROM old_rows
+        GROUP BY user_id, status
+        ORDER BY user_id, status
+        ON CONFLICT (user_id, status) DO UPDATE SET count = c.count + EXCLUDED.count;
+    ELSE
+        -- Net change per (user, status); updates that keep the status write nothing
+        INSERT INTO public.lead_status_counts AS c (user_id, status, count)
+        SELECT user_id, status, SUM(delta)
+        FROM (
+            SELECT user_id, status, -1 AS delta FROM old_rows
+            UNION ALL
+            SELECT user_id, status, 1 AS delta FROM new_rows
+        ) AS changes
+        GROUP BY user_id, status
+        HAVING SUM(delta) <> 0
+        ORDER BY user_id, status
+        ON CONFLICT (user_id, status) DO UPDATE SET count = c.count + EXCLUDED.count;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recounts one user's leads and repairs their counters; returns the number corrected.
+-- Every status gets a counter row, and all of them are locked before the recount:
+-- trigger upserts for the user wait for the repair to commit and then apply on top
+-- of it, and the recount (a new snapshot) includes every write committed before.
+-- Counters are set to zero rather than deleted, so there is no missing row to race on.
+CREATE OR REPLACE FUNCTION reconcile_lead_status_counts(p_user_id UUID)
+RETURNS BIGINT AS $$
+DECLARE
+    fixed BIGINT;
+BEGIN
+    INSERT INTO public.lead_status_counts (user_id, status, count)
+    SELECT p_user_id, status, 0
+    FROM unnest(enum_range(NULL::lead_status)) AS status
+    ON CONFLICT (user_id, status) DO NOTHING;
+
+    -- Same order as the trigger upserts
+    PERFORM 1
+    FROM public.lead_status_counts
+    WHERE user_id = p_user_id
+    ORDER BY status
+    FOR UPDATE;
+
+    UPDATE public.lead_status_counts c
+    SET count = actual.count
+    FROM (
+        SELECT s.status, COUNT(l.id) AS count
+        FROM unnest(enum_range(NULL::lead_status)) AS s(status)
+        LEFT JOIN public.leads l ON l.user_id = p_user_id AND l.status = s.status
+        GROUP BY s.status
+    ) AS actual
+    WHERE c.user_id = p_user_id
+      AND c.status = actual.status
+      AND c.count <> actual.count;
+    GET DIAGNOSTICS fixed = ROW_COUNT;
+
+    RETURN fixed;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bump_lead_versions()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO public.lead_versions AS v (user_id, version)
+        SELECT DISTINCT user_id, 1 FROM new_rows ORDER BY user_id
+        ON CONFLICT (user_id) DO UPDATE SET version = v.version + 1;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO public.lead_versions AS v (user_id, version)
+        SELECT DISTINCT user_id, 1 FROM old_rows ORDER BY user_id
+        ON CONFLICT (user_id) DO UPDATE SET version = v.version + 1;
+    ELSE
+        INSERT INTO public.lead_versions AS v (user_id, version)
+        SELECT user_id, 1
+        FROM (SELECT user_id FROM old_rows UNION SELECT user_id FROM new_rows) AS touched
+        ORDER BY user_id
+        ON CONFLICT (user_id) DO UPDATE SET version = v.version + 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Publishes lead writes on channel lead_changes for GET /api/leads/changes: one
+-- notification per user per statement. ids is null past 100 rows, keeping the
+-- payload well under the 8000 byte limit; listeners refetch instead.
+CREATE OR REPLACE FUNCTION notify_lead_changes()
+RETURNS TRIGGER AS $$
+DECLARE
+    event TEXT := CASE TG_OP WHEN 'INSERT' THEN 'created' WHEN 'UPDATE' THEN 'updated' ELSE 'deleted' END;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('lead_changes', json_build_object(
+                    'user_id', user_id,
+                    'type', event,
+                    'ids', CASE WHEN COUNT(*) <= 100 THEN json_agg(id) END)::text)
+        FROM old_rows
+        GROUP BY user_id;
+    ELSE
+        PERFORM pg_notify('lead_changes', json_build_object(
+                    'user_id', user_id,
+                    'type', event,
+                    'ids', CASE WHEN COUNT(*) <= 100 THEN json_agg(id) END)::text)
+        FROM new_rows
+        GROUP BY user_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
 CREATE OR REPLACE FUNCTION handle_new_user()
 RETURNS TRIGGER AS $$
 BEGIN
@@ -81,17 +309,69 @@ CREATE TRIGGER update_users_updated_at
     BEFORE UPDATE ON public.users
     FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 
+-- Moving a lead between partitions is not an edit
 CREATE TRIGGER update_leads_updated_at
     BEFORE UPDATE ON public.leads
-    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+    FOR EACH ROW
+    WHEN (OLD.archived = NEW.archived)
+    EXECUTE FUNCTION update_updated_at_column();
 
 CREATE TRIGGER update_profiles_updated_at
     BEFORE UPDATE ON public.profiles
     FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 
+-- The application assigns lead_number and display_id itself (LeadNumberAllocator);
+-- this only covers rows inserted any other way
 CREATE TRIGGER generate_lead_display_id_trigger
     BEFORE INSERT ON public.leads
-    FOR EACH ROW EXECUTE FUNCTION generate_lead_display_id();
+    FOR EACH ROW
+    WHEN (NEW.display_id IS NULL)
+    EXECUTE FUNCTION generate_lead_display_id();
+
+CREATE TRIGGER lead_status_counts_insert
+    AFTER INSERT ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_lead_status_counts();
+
+CREATE TRIGGER lead_status_counts_update
+    AFTER UPDATE ON public.leads
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_lead_status_counts();
+
+CREATE TRIGGER lead_status_counts_delete
+    AFTER DELETE ON public.leads
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_lead_status_counts();
+
+CREATE TRIGGER lead_versions_insert
+    AFTER INSERT ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_lead_versions();
+
+CREATE TRIGGER lead_versions_update
+    AFTER UPDATE ON public.leads
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_lead_versions();
+
+CREATE TRIGGER lead_versions_delete
+    AFTER DELETE ON public.leads
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_lead_versions();
+
+CREATE TRIGGER lead_changes_insert
+    AFTER INSERT ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_changes();
+
+CREATE TRIGGER lead_changes_update
+    AFTER UPDATE ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_changes();
+
+CREATE TRIGGER lead_changes_delete
+    AFTER DELETE ON public.leads
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_changes();
 
 CREATE TRIGGER on_user_created
     AFTER INSERT ON public.users
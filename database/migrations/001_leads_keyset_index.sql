@@ -0,0 +1,6 @@
+-- ==============================================
+-- 001 - Keyset pagination index for GET /api/leads?cursor=
+-- ==============================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_user_created_id
+    ON public.leads(user_id, created_at DESC, id DESC);
@@ -0,0 +1,39 @@
+-- ==============================================
+-- 002 - Estimated counts for GET /api/leads?count=estimated
+-- ==============================================
+
+-- Planner row estimate for the GET /api/leads filter (count=estimated).
+-- Values are inlined as literals so the per-value statistics for user_id/status apply.
+-- VOLATILE (the default) on purpose: EXPLAIN is rejected inside STABLE functions.
+CREATE OR REPLACE FUNCTION estimate_leads_count(
+    p_user_id UUID,
+    p_status TEXT,
+    p_search TEXT,
+    p_date_from TIMESTAMPTZ,
+    p_date_to TIMESTAMPTZ
+)
+RETURNS BIGINT AS $$
+DECLARE
+    query TEXT;
+    plan JSON;
+BEGIN
+    query := format('SELECT 1 FROM public.leads WHERE user_id = %L', p_user_id);
+
+    IF p_status IS NOT NULL THEN
+        query := query || format(' AND status = %L::lead_status', p_status);
+    END IF;
+    IF p_search IS NOT NULL THEN
+        query := query || format(
+            ' AND (name ILIKE %1$L OR email ILIKE %1$L)', '%' || p_search || '%');
+    END IF;
+    IF p_date_from IS NOT NULL THEN
+        query := query || format(' AND created_at >= %L', p_date_from);
+    END IF;
+    IF p_date_to IS NOT NULL THEN
+        query := query || format(' AND created_at <= %L', p_date_to);
+    END IF;
+
+    EXECUTE 'EXPLAIN (FORMAT JSON) ' || query INTO plan;
+    RETURN (plan -> 0 -> 'Plan' ->> 'Plan Rows')::BIGINT;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,63 @@
+-- ==============================================
+-- 003 - Indexed lead search (search_mode=ilike|fulltext)
+-- ==============================================
+-- Adding the stored generated column rewrites public.leads; run in a maintenance window.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE public.leads
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(email, '') || ' ' || translate(coalesce(email, ''), '@.', '  ')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(company, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(notes, '')), 'C')
+    ) STORED;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_name_trgm
+    ON public.leads USING GIN (name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_email_trgm
+    ON public.leads USING GIN (email gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_search_vector
+    ON public.leads USING GIN (search_vector);
+
+-- Replaces the 5-argument version from 002
+DROP FUNCTION IF EXISTS estimate_leads_count(UUID, TEXT, TEXT, TIMESTAMPTZ, TIMESTAMPTZ);
+
+-- Planner row estimate for the GET /api/leads filter (count=estimated).
+-- Values are inlined as literals so the per-value statistics for user_id/status apply.
+-- For p_search_mode = 'fulltext', p_search is the tsquery text built by the application.
+CREATE OR REPLACE FUNCTION estimate_leads_count(
+    p_user_id UUID,
+    p_status TEXT,
+    p_search TEXT,
+    p_date_from TIMESTAMPTZ,
+    p_date_to TIMESTAMPTZ,
+    p_search_mode TEXT DEFAULT 'ilike'
+)
+RETURNS BIGINT AS $$
+DECLARE
+    query TEXT;
+    plan JSON;
+BEGIN
+    query := format('SELECT 1 FROM public.leads WHERE user_id = %L', p_user_id);
+
+    IF p_status IS NOT NULL THEN
+        query := query || format(' AND status = %L::lead_status', p_status);
+    END IF;
+    IF p_search IS NOT NULL AND p_search_mode = 'fulltext' THEN
+        query := query || format(' AND search_vector @@ to_tsquery(''simple'', %L)', p_search);
+    ELSIF p_search IS NOT NULL THEN
+        query := query || format(
+            ' AND (name ILIKE %1$L OR email ILIKE %1$L)', '%' || p_search || '%');
+    END IF;
+    IF p_date_from IS NOT NULL THEN
+        query := query || format(' AND created_at >= %L', p_date_from);
+    END IF;
+    IF p_date_to IS NOT NULL THEN
+        query := query || format(' AND created_at <= %L', p_date_to);
+    END IF;
+
+    EXECUTE 'EXPLAIN (FORMAT JSON) ' || query INTO plan;
+    RETURN (plan -> 0 -> 'Plan' ->> 'Plan Rows')::BIGINT;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,11 @@
+-- ==============================================
+-- 004 - Case-insensitive unique index for login / sign-up
+-- ==============================================
+-- Fails if two existing users differ only by letter case; merge those first:
+--   SELECT LOWER(email), COUNT(*) FROM public.users GROUP BY 1 HAVING COUNT(*) > 1;
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS users_email_lower_key
+    ON public.users (LOWER(email));
+
+-- Superseded: nothing filters on the raw column, and the UNIQUE constraint already indexes it
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_email;
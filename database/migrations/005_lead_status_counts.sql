@@ -0,0 +1,97 @@
+-- ==============================================
+-- 005 - Per-user lead status counters for GET /api/leads/stats
+-- ==============================================
+
+-- Per-user lead counts by status, served by GET /api/leads/stats.
+-- Kept current by statement-level triggers on leads (one upsert per status touched,
+-- whatever the number of rows) and repaired by reconcile_lead_status_counts().
+-- No foreign key: rows must be writable while a user's leads are cascade-deleted.
+CREATE TABLE public.lead_status_counts (
+    user_id UUID NOT NULL,
+    status lead_status NOT NULL,
+    count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, status)
+);
+
+CREATE OR REPLACE FUNCTION apply_lead_status_counts()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO public.lead_status_counts AS c (user_id, status, count)
+        SELECT user_id, status, COUNT(*)
+        FROM new_rows
+        GROUP BY user_id, status
+        ORDER BY user_id, status
+        ON CONFLICT (user_id, status) DO UPDATE SET count = c.count + EXCLUDED.count;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO public.lead_status_counts AS c (user_id, status, count)
+        SELECT user_id, status, -COUNT(*)
+        FROM old_rows
+        GROUP BY user_id, status
+        ORDER BY user_id, status
+        ON CONFLICT (user_id, status) DO UPDATE SET count = c.count + EXCLUDED.count;
+    ELSE
+        -- Net change per (user, status); updates that keep the status write nothing
+        INSERT INTO public.lead_status_counts AS c (user_id, status, count)
+        SELECT user_id, status, SUM(delta)
+        FROM (
+            SELECT user_id, status, -1 AS delta FROM old_rows
+            UNION ALL
+            SELECT user_id, status, 1 AS delta FROM new_rows
+        ) AS changes
+        GROUP BY user_id, status
+        HAVING SUM(delta) <> 0
+        ORDER BY user_id, status
+        ON CONFLICT (user_id, status) DO UPDATE SET count = c.count + EXCLUDED.count;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recomputes every counter from public.leads; returns the number of rows corrected.
+CREATE OR REPLACE FUNCTION reconcile_lead_status_counts()
+RETURNS BIGINT AS $$
+DECLARE
+    fixed BIGINT;
+    removed BIGINT;
+BEGIN
+    WITH actual AS (
+        SELECT user_id, status, COUNT(*) AS count
+        FROM public.leads
+        GROUP BY user_id, status
+    ), upserted AS (
+        INSERT INTO public.lead_status_counts AS c (user_id, status, count)
+        SELECT user_id, status, count FROM actual
+        ON CONFLICT (user_id, status) DO UPDATE SET count = EXCLUDED.count
+            WHERE c.count <> EXCLUDED.count
+        RETURNING 1
+    )
+    SELECT COUNT(*) INTO fixed FROM upserted;
+
+    DELETE FROM public.lead_status_counts c
+    WHERE NOT EXISTS (
+        SELECT 1 FROM public.leads l WHERE l.user_id = c.user_id AND l.status = c.status
+    );
+    GET DIAGNOSTICS removed = ROW_COUNT;
+
+    RETURN fixed + removed;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER lead_status_counts_insert
+    AFTER INSERT ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_lead_status_counts();
+
+CREATE TRIGGER lead_status_counts_update
+    AFTER UPDATE ON public.leads
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_lead_status_counts();
+
+CREATE TRIGGER lead_status_counts_delete
+    AFTER DELETE ON public.leads
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_lead_status_counts();
+
+-- Backfill
+SELECT reconcile_lead_status_counts();
@@ -0,0 +1,47 @@
+-- ==============================================
+-- 006 - Per-user change marker for ETags on GET /api/leads
+-- ==============================================
+
+-- Per-user change marker for conditional GETs (ETag). Bumped once per statement
+-- that writes a user's leads, by statement-level triggers on leads.
+CREATE TABLE public.lead_versions (
+    user_id UUID PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE OR REPLACE FUNCTION bump_lead_versions()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO public.lead_versions AS v (user_id, version)
+        SELECT DISTINCT user_id, 1 FROM new_rows ORDER BY user_id
+        ON CONFLICT (user_id) DO UPDATE SET version = v.version + 1;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO public.lead_versions AS v (user_id, version)
+        SELECT DISTINCT user_id, 1 FROM old_rows ORDER BY user_id
+        ON CONFLICT (user_id) DO UPDATE SET version = v.version + 1;
+    ELSE
+        INSERT INTO public.lead_versions AS v (user_id, version)
+        SELECT user_id, 1
+        FROM (SELECT user_id FROM old_rows UNION SELECT user_id FROM new_rows) AS touched
+        ORDER BY user_id
+        ON CONFLICT (user_id) DO UPDATE SET version = v.version + 1;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER lead_versions_insert
+    AFTER INSERT ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_lead_versions();
+
+CREATE TRIGGER lead_versions_update
+    AFTER UPDATE ON public.leads
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_lead_versions();
+
+CREATE TRIGGER lead_versions_delete
+    AFTER DELETE ON public.leads
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_lead_versions();
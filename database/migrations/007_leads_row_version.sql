@@ -0,0 +1,6 @@
+-- ==============================================
+-- 007 - Row version on leads for optimistic concurrency
+-- ==============================================
+
+-- Constant default: no table rewrite, existing rows read as version 0
+ALTER TABLE public.leads ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
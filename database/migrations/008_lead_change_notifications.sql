@@ -0,0 +1,45 @@
+-- ==============================================
+-- 008 - NOTIFY on lead writes for the SSE change stream
+-- ==============================================
+
+-- Publishes lead writes on channel lead_changes for GET /api/leads/changes: one
+-- notification per user per statement. ids is null past 100 rows, keeping the
+-- payload well under the 8000 byte limit; listeners refetch instead.
+CREATE OR REPLACE FUNCTION notify_lead_changes()
+RETURNS TRIGGER AS $$
+DECLARE
+    event TEXT := CASE TG_OP WHEN 'INSERT' THEN 'created' WHEN 'UPDATE' THEN 'updated' ELSE 'deleted' END;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM pg_notify('lead_changes', json_build_object(
+                    'user_id', user_id,
+                    'type', event,
+                    'ids', CASE WHEN COUNT(*) <= 100 THEN json_agg(id) END)::text)
+        FROM old_rows
+        GROUP BY user_id;
+    ELSE
+        PERFORM pg_notify('lead_changes', json_build_object(
+                    'user_id', user_id,
+                    'type', event,
+                    'ids', CASE WHEN COUNT(*) <= 100 THEN json_agg(id) END)::text)
+        FROM new_rows
+        GROUP BY user_id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER lead_changes_insert
+    AFTER INSERT ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_changes();
+
+CREATE TRIGGER lead_changes_update
+    AFTER UPDATE ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_changes();
+
+CREATE TRIGGER lead_changes_delete
+    AFTER DELETE ON public.leads
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_changes();
@@ -0,0 +1,25 @@
+-- ==============================================
+-- 009 - Sort indexes for GET /api/leads?sort_field=&sort_order=
+-- ==============================================
+-- Each sort is "<field> <dir>, id <dir>" for one user; a (user_id, field, id) index
+-- returns rows in that order scanned either way, so pages never need a Sort step.
+-- created_at is already served by idx_leads_user_created_id (001).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_user_name_id
+    ON public.leads(user_id, name, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_user_email_id
+    ON public.leads(user_id, email, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_user_company_id
+    ON public.leads(user_id, company, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_user_status_id
+    ON public.leads(user_id, status, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_user_updated_id
+    ON public.leads(user_id, updated_at DESC, id DESC);
+
+-- status filter with the default newest-first order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_user_status_created_id
+    ON public.leads(user_id, status, created_at DESC, id DESC);
+
+-- Leading columns of the indexes above; every lead query is scoped to one user
+DROP INDEX CONCURRENTLY IF EXISTS idx_leads_user_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_leads_status;
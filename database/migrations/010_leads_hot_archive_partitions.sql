@@ -0,0 +1,181 @@
+-- ==============================================
+-- 010 - Hot/archive partitions for leads
+-- ==============================================
+-- leads becomes LIST-partitioned on a new archived flag: leads_hot holds the
+-- working set, leads_archive the closed leads that LeadArchiver has moved out
+-- after archive.after without changes. Listing queries add "NOT archived"
+-- unless include_archived=true, so they are pruned to leads_hot and its indexes.
+--
+-- Rewrites the table under an exclusive lock; run it in a maintenance window.
+-- Triggers are recreated after the copy, so counters and change markers are
+-- left as they are.
+
+BEGIN;
+
+ALTER TABLE public.leads RENAME TO leads_unpartitioned;
+-- Keep the lead_number sequence when the old table is dropped
+ALTER SEQUENCE public.leads_lead_number_seq OWNED BY NONE;
+
+CREATE TABLE public.leads (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES public.users(id) ON DELETE CASCADE,
+    lead_number INTEGER NOT NULL DEFAULT nextval('public.leads_lead_number_seq'),
+    display_id TEXT,
+    name TEXT NOT NULL,
+    email TEXT NOT NULL,
+    status lead_status NOT NULL DEFAULT 'New',
+    company TEXT,
+    phone TEXT,
+    notes TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    version BIGINT NOT NULL DEFAULT 0,
+    search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(email, '') || ' ' || translate(coalesce(email, ''), '@.', '  ')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(company, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(notes, '')), 'C')
+    ) STORED,
+    -- Set only by the archiver; an update that flips it moves the row between partitions
+    archived BOOLEAN NOT NULL DEFAULT false
+) PARTITION BY LIST (archived);
+
+CREATE TABLE public.leads_hot PARTITION OF public.leads FOR VALUES IN (false);
+CREATE TABLE public.leads_archive PARTITION OF public.leads FOR VALUES IN (true);
+
+INSERT INTO public.leads (id, user_id, lead_number, display_id, name, email, status,
+                          company, phone, notes, created_at, updated_at, version)
+SELECT id, user_id, lead_number, display_id, name, email, status,
+       company, phone, notes, created_at, updated_at, version
+FROM public.leads_unpartitioned;
+
+DROP TABLE public.leads_unpartitioned;
+
+ALTER SEQUENCE public.leads_lead_number_seq OWNED BY public.leads.lead_number;
+
+-- The partition key has to be part of the primary key, so id is only unique within
+-- a partition. Ids come from gen_random_uuid(), and a move between partitions
+-- deletes the old row, so the same id only shows up twice if inserted explicitly.
+ALTER TABLE public.leads ADD PRIMARY KEY (id, archived);
+
+-- Same indexes as before, created on every partition
+CREATE INDEX idx_leads_created_at ON public.leads(created_at DESC);
+CREATE INDEX idx_leads_user_created_id ON public.leads(user_id, created_at DESC, id DESC);
+CREATE INDEX idx_leads_user_name_id ON public.leads(user_id, name, id);
+CREATE INDEX idx_leads_user_email_id ON public.leads(user_id, email, id);
+CREATE INDEX idx_leads_user_company_id ON public.leads(user_id, company, id);
+CREATE INDEX idx_leads_user_status_id ON public.leads(user_id, status, id);
+CREATE INDEX idx_leads_user_updated_id ON public.leads(user_id, updated_at DESC, id DESC);
+CREATE INDEX idx_leads_user_status_created_id ON public.leads(user_id, status, created_at DESC, id DESC);
+CREATE INDEX idx_leads_name_trgm ON public.leads USING GIN (name gin_trgm_ops);
+CREATE INDEX idx_leads_email_trgm ON public.leads USING GIN (email gin_trgm_ops);
+CREATE INDEX idx_leads_search_vector ON public.leads USING GIN (search_vector);
+
+-- Archiver batches: closed hot leads by age, and archived leads that were reopened
+CREATE INDEX idx_leads_hot_closed_updated ON public.leads_hot(updated_at)
+    WHERE status IN ('Closed-Won', 'Closed-Lost');
+CREATE INDEX idx_leads_archive_reopened ON public.leads_archive(id)
+    WHERE status NOT IN ('Closed-Won', 'Closed-Lost');
+
+-- Moving a lead between partitions is not an edit
+CREATE TRIGGER update_leads_updated_at
+    BEFORE UPDATE ON public.leads
+    FOR EACH ROW
+    WHEN (OLD.archived = NEW.archived)
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER generate_lead_display_id_trigger
+    BEFORE INSERT ON public.leads
+    FOR EACH ROW EXECUTE FUNCTION generate_lead_display_id();
+
+CREATE TRIGGER lead_status_counts_insert
+    AFTER INSERT ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_lead_status_counts();
+
+CREATE TRIGGER lead_status_counts_update
+    AFTER UPDATE ON public.leads
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_lead_status_counts();
+
+CREATE TRIGGER lead_status_counts_delete
+    AFTER DELETE ON public.leads
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_lead_status_counts();
+
+CREATE TRIGGER lead_versions_insert
+    AFTER INSERT ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_lead_versions();
+
+CREATE TRIGGER lead_versions_update
+    AFTER UPDATE ON public.leads
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_lead_versions();
+
+CREATE TRIGGER lead_versions_delete
+    AFTER DELETE ON public.leads
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_lead_versions();
+
+CREATE TRIGGER lead_changes_insert
+    AFTER INSERT ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_changes();
+
+CREATE TRIGGER lead_changes_update
+    AFTER UPDATE ON public.leads
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_changes();
+
+CREATE TRIGGER lead_changes_delete
+    AFTER DELETE ON public.leads
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_lead_changes();
+
+-- The estimate has to see the same partitions as the listing it estimates
+DROP FUNCTION IF EXISTS estimate_leads_count(UUID, TEXT, TEXT, TIMESTAMPTZ, TIMESTAMPTZ, TEXT);
+
+CREATE OR REPLACE FUNCTION estimate_leads_count(
+    p_user_id UUID,
+    p_status TEXT,
+    p_search TEXT,
+    p_date_from TIMESTAMPTZ,
+    p_date_to TIMESTAMPTZ,
+    p_search_mode TEXT DEFAULT 'ilike',
+    p_include_archived BOOLEAN DEFAULT false
+)
+RETURNS BIGINT AS $$
+DECLARE
+    query TEXT;
+    plan JSON;
+BEGIN
+    query := format('SELECT 1 FROM public.leads WHERE user_id = %L', p_user_id);
+
+    IF NOT p_include_archived THEN
+        query := query || ' AND NOT archived';
+    END IF;
+    IF p_status IS NOT NULL THEN
+        query := query || format(' AND status = %L::lead_status', p_status);
+    END IF;
+    IF p_search IS NOT NULL AND p_search_mode = 'fulltext' THEN
+        query := query || format(' AND search_vector @@ to_tsquery(''simple'', %L)', p_search);
+    ELSIF p_search IS NOT NULL THEN
+        query := query || format(
+            ' AND (name ILIKE %1$L OR email ILIKE %1$L)', '%' || p_search || '%');
+    END IF;
+    IF p_date_from IS NOT NULL THEN
+        query := query || format(' AND created_at >= %L', p_date_from);
+    END IF;
+    IF p_date_to IS NOT NULL THEN
+        query := query || format(' AND created_at <= %L', p_date_to);
+    END IF;
+
+    EXECUTE 'EXPLAIN (FORMAT JSON) ' || query INTO plan;
+    RETURN (plan -> 0 -> 'Plan' ->> 'Plan Rows')::BIGINT;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMIT;
+
+ANALYZE public.leads;
@@ -0,0 +1,27 @@
+-- ==============================================
+-- 011 - Lead numbers assigned by the application
+-- ==============================================
+-- The API and the import reserve lead_number values from leads_lead_number_seq
+-- in blocks (LeadNumberAllocator) and send display_id with each row. The trigger
+-- remains for rows inserted any other way, and only fires for those.
+
+-- Same format as LeadNumberAllocator.displayId: at least five digits, never cut
+CREATE OR REPLACE FUNCTION generate_lead_display_id()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.display_id := 'LD-' || LPAD(NEW.lead_number::TEXT, GREATEST(5, length(NEW.lead_number::TEXT)), '0');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+BEGIN;
+
+DROP TRIGGER generate_lead_display_id_trigger ON public.leads;
+
+CREATE TRIGGER generate_lead_display_id_trigger
+    BEFORE INSERT ON public.leads
+    FOR EACH ROW
+    WHEN (NEW.display_id IS NULL)
+    EXECUTE FUNCTION generate_lead_display_id();
+
+COMMIT;
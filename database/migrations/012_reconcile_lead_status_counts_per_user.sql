@@ -0,0 +1,50 @@
+-- ==============================================
+-- 012 - Per-user lead status counter repair
+-- ==============================================
+-- reconcile_lead_status_counts() recounted every user in one statement without
+-- locking the counters. Under READ COMMITTED its upsert could overwrite trigger
+-- increments made after its snapshot with an older count, and its DELETE could
+-- remove the counter of a lead inserted meanwhile. It is replaced by a per-user
+-- function that locks that user's counters first; LeadStatsService calls it once
+-- per user, each call in its own transaction.
+
+DROP FUNCTION IF EXISTS reconcile_lead_status_counts();
+
+-- Recounts one user's leads and repairs their counters; returns the number corrected.
+-- Every status gets a counter row, and all of them are locked before the recount:
+-- trigger upserts for the user wait for the repair to commit and then apply on top
+-- of it, and the recount (a new snapshot) includes every write committed before.
+-- Counters are set to zero rather than deleted, so there is no missing row to race on.
+CREATE OR REPLACE FUNCTION reconcile_lead_status_counts(p_user_id UUID)
+RETURNS BIGINT AS $$
+DECLARE
+    fixed BIGINT;
+BEGIN
+    INSERT INTO public.lead_status_counts (user_id, status, count)
+    SELECT p_user_id, status, 0
+    FROM unnest(enum_range(NULL::lead_status)) AS status
+    ON CONFLICT (user_id, status) DO NOTHING;
+
+    -- Same order as the trigger upserts
+    PERFORM 1
+    FROM public.lead_status_counts
+    WHERE user_id = p_user_id
+    ORDER BY status
+    FOR UPDATE;
+
+    UPDATE public.lead_status_counts c
+    SET count = actual.count
+    FROM (
+        SELECT s.status, COUNT(l.id) AS count
+        FROM unnest(enum_range(NULL::lead_status)) AS s(status)
+        LEFT JOIN public.leads l ON l.user_id = p_user_id AND l.status = s.status
+        GROUP BY s.status
+    ) AS actual
+    WHERE c.user_id = p_user_id
+      AND c.status = actual.status
+      AND c.count <> actual.count;
+    GET DIAGNOSTICS fixed = ROW_COUNT;
+
+    RETURN fixed;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,22 @@
+-- ==============================================
+-- 013 - Index for the bulk update/delete walk
+-- ==============================================
+-- Bulk writes by filter take each batch as
+--   WHERE user_id = :userId ... AND id > :afterId ORDER BY id LIMIT :limit
+-- Nothing has served that order since 009 dropped idx_leads_user_id, so every
+-- batch read and sorted all of the user's matching rows: O(N^2 / limit) for N.
+-- With (user_id, id) each batch is an index range scan from afterId.
+--
+-- leads is partitioned since 010, and CREATE INDEX CONCURRENTLY is not supported
+-- on a partitioned table: the parent index is created on its own, each
+-- partition's is built concurrently and then attached.
+
+CREATE INDEX IF NOT EXISTS idx_leads_user_id_id ON ONLY public.leads(user_id, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_hot_user_id_id
+    ON public.leads_hot(user_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_leads_archive_user_id_id
+    ON public.leads_archive(user_id, id);
+
+ALTER INDEX public.idx_leads_user_id_id ATTACH PARTITION public.idx_leads_hot_user_id_id;
+ALTER INDEX public.idx_leads_user_id_id ATTACH PARTITION public.idx_leads_archive_user_id_id;
@@ -0,0 +1,55 @@
+package com.leadshub.bench;
+
+import com.leadshub.model.Lead;
+import com.leadshub.model.LeadStatus;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic leads shaped like production rows.
+ */
+final class BenchData {
+
+    static final UUID USER_ID = UUID.fromString("a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11");
+
+    private static final String[] FIRST = {"Thandi", "John", "Maria", "Sipho", "Wei", "Aisha", "Pieter", "Lerato"};
+    private static final String[] LAST = {"Maluleke", "Smith", "Garcia", "Nkosi", "Chen", "Khan", "van Wyk", "Mokoena"};
+    private static final String[] COMPANY = {"Acme Corp", "Globex", "Initech", "Umbrella", "Hooli", "Stark Industries"};
+
+    private BenchData() {
+    }
+
+    static List<Lead> leads(int count) {
+        Random random = new Random(42);
+        OffsetDateTime now = OffsetDateTime.parse("2024-06-01T12:00:00Z");
+        LeadStatus[] statuses = LeadStatus.values();
+
+        List<Lead> leads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String first = FIRST[random.nextInt(FIRST.length)];
+            String last = LAST[random.nextInt(LAST.length)];
+            OffsetDateTime created = now.minusMinutes(i * 37L);
+
+            leads.add(Lead.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .userId(USER_ID)
+                    .leadNumber(1000 + i)
+                    .displayId(String.format("LD-%05d", 1000 + i))
+                    .name(first + " " + last)
+                    .email((first + "." + last).toLowerCase().replace(' ', '-') + i + "@example.com")
+                    .status(statuses[random.nextInt(statuses.length)])
+                    .company(COMPANY[random.nextInt(COMPANY.length)])
+                    .phone("+27 82 555 " + String.format("%04d", i % 10000))
+                    .notes(i % 3 == 0 ? "Met at the expo, follow up on pricing for the enterprise tier." : null)
+                    .createdAt(created)
+                    .updatedAt(created.plusHours(2))
+                    .version((long) (i % 4))
+                    .build());
+        }
+        return leads;
+    }
+}
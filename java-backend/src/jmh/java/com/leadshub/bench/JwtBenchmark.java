@@ -0,0 +1,56 @@
+package com.leadshub.bench;
+
+import com.leadshub.security.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and check on every authenticated request. {@code validate} is the
+ * steady state, served from the verified-token cache; {@code parse} is a token's
+ * first request, paying for the signature check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-minimum-32-characters";
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = new JwtUtil(SECRET, 86_400_000L, 10_000, Duration.ofSeconds(30), new SimpleMeterRegistry());
+        uncached = new JwtUtil(SECRET, 86_400_000L, 0, Duration.ofSeconds(30), new SimpleMeterRegistry());
+        token = cached.generateToken(BenchData.USER_ID.toString(), "demo@leadshub.com");
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return cached.generateToken(BenchData.USER_ID.toString(), "demo@leadshub.com");
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return cached.validateToken(token);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public String userIdFromToken() {
+        return cached.getUserIdFromToken(token);
+    }
+}
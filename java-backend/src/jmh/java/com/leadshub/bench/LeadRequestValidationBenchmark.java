@@ -0,0 +1,57 @@
+package com.leadshub.bench;
+
+import com.leadshub.dto.LeadRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation of a create body, run per request and per imported row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeadRequestValidationBenchmark {
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private LeadRequest valid;
+    private LeadRequest invalid;
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+
+        valid = new LeadRequest();
+        valid.setName("Thandi Maluleke");
+        valid.setEmail("thandi.maluleke@example.com");
+        valid.setCompany("Acme Corp");
+
+        // Every constraint fails: violations are the expensive path
+        invalid = new LeadRequest();
+        invalid.setName(" ");
+        invalid.setEmail("not-an-email");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Object validRequest() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Object invalidRequest() {
+        return validator.validate(invalid);
+    }
+}
@@ -0,0 +1,101 @@
+package com.leadshub.bench;
+
+import com.leadshub.dto.LeadCursor;
+import com.leadshub.dto.LeadsResponse;
+import com.leadshub.model.Lead;
+import com.leadshub.repository.LeadFilter;
+import com.leadshub.repository.LeadRepository;
+import com.leadshub.service.CountMode;
+import com.leadshub.service.LeadReadCache;
+import com.leadshub.service.LeadService;
+import com.leadshub.service.LeadStatsService;
+import com.leadshub.service.LeadSuggestIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What LeadService adds on top of the queries: page assembly, has_next trimming,
+ * cursor encoding. The repository is an in-memory stub, so no database time is
+ * included, and the read cache is off so every call does the work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeadServiceMappingBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private LeadService leadService;
+    private LeadFilter filter;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        // One extra row so has_next is true
+        LeadRepository repository = stubRepository(BenchData.leads(pageSize + 1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        leadService = new LeadService(
+                repository,
+                null, // lead numbers are only allocated by createLead
+                new LeadSuggestIndex(repository, 64),
+                new LeadStatsService(
+                        repository,
+                        null, // users are only listed by the scheduled reconcile
+                        10_000,
+                        Duration.ofSeconds(30),
+                        meterRegistry
+                ),
+                new LeadReadCache(false, 64, Duration.ofMinutes(1), meterRegistry),
+                1000
+        );
+        filter = LeadFilter.builder().userId(BenchData.USER_ID).build();
+
+        Lead last = BenchData.leads(1).get(0);
+        cursor = new LeadCursor(last.getCreatedAt(), last.getId()).encode();
+    }
+
+    @Benchmark
+    public LeadsResponse offsetPageExactCount() {
+        return leadService.getLeads(filter, null, 3, pageSize, CountMode.EXACT, 0L).block();
+    }
+
+    @Benchmark
+    public LeadsResponse offsetPageNoCount() {
+        return leadService.getLeads(filter, null, 3, pageSize, CountMode.NONE, 0L).block();
+    }
+
+    @Benchmark
+    public LeadsResponse cursorPage() {
+        return leadService.getLeadsAfter(filter, null, LeadCursor.decode(cursor), pageSize, 0L).block();
+    }
+
+    @Benchmark
+    public String cursorRoundTrip() {
+        return LeadCursor.decode(cursor).encode();
+    }
+
+    private static LeadRepository stubRepository(List<Lead> rows) {
+        return (LeadRepository) Proxy.newProxyInstance(
+                LeadRepository.class.getClassLoader(),
+                new Class<?>[]{LeadRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findFiltered" -> Flux.fromIterable(rows.subList(0, Math.min((int) args[1], rows.size())));
+                    case "findFilteredAfter" -> Flux.fromIterable(rows.subList(0, Math.min((int) args[2], rows.size())));
+                    case "countFiltered", "estimateFiltered" -> Mono.just(25_000L);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+}
@@ -0,0 +1,111 @@
+package com.leadshub.bench;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.leadshub.dto.LeadsResponse;
+import com.leadshub.model.Lead;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding one GET /api/leads page per response format, configured
+ * as in CodecConfig. Payload sizes, raw and gzipped, are reported as the
+ * {@code bytes} and {@code gzipBytes} secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeadsPayloadFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private LeadsResponse page;
+    private byte[] encoded;
+    private long gzipped;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        public long bytes;
+        public long gzipBytes;
+    }
+
+    /**
+     * A page as a client reads it, with typed leads.
+     */
+    public static class TypedPage {
+        public List<Lead> data;
+        public Map<String, Object> pagination;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        objectMapper = switch (format) {
+            case "json" -> json;
+            case "cbor" -> binary(json.copyWith(new CBORFactory()));
+            case "smile" -> binary(json.copyWith(new SmileFactory()));
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+
+        page = LeadsResponse.builder()
+                .data(BenchData.leads(pageSize))
+                .pagination(Map.of(
+                        "count_mode", "exact",
+                        "search_mode", "ilike",
+                        "page", 1,
+                        "page_size", pageSize,
+                        "total_count", 25_000L,
+                        "total_pages", 25_000 / pageSize
+                ))
+                .build();
+        encoded = objectMapper.writeValueAsBytes(page);
+        gzipped = gzip(encoded);
+    }
+
+    @Benchmark
+    public byte[] encode(Size size) throws Exception {
+        byte[] bytes = objectMapper.writeValueAsBytes(page);
+        size.bytes = bytes.length;
+        size.gzipBytes = gzipped;
+        return bytes;
+    }
+
+    @Benchmark
+    public TypedPage decode() throws Exception {
+        return objectMapper.readValue(encoded, TypedPage.class);
+    }
+
+    private static ObjectMapper binary(ObjectMapper mapper) {
+        return mapper
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    }
+
+    private static long gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.leadshub.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leadshub.dto.LeadsResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing one GET /api/leads page, with the ObjectMapper defaults Spring Boot applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeadsResponseJsonBenchmark {
+
+    @Param({"10", "50", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private LeadsResponse page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        page = LeadsResponse.builder()
+                .data(BenchData.leads(pageSize))
+                .pagination(Map.of(
+                        "count_mode", "exact",
+                        "search_mode", "ilike",
+                        "page", 1,
+                        "page_size", pageSize,
+                        "total_count", 25_000L,
+                        "total_pages", 25_000 / pageSize
+                ))
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,216 @@
+package com.leadshub.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end behaviour checks on the load test's stack: Postgres with the schema and
+ * the real application, no seeded data. Every check prints PASS or FAIL; the run
+ * exits with 1 if any failed.
+ *
+ * <p>mvn -Ploadtest test-compile exec:java -Dexec.mainClass=com.leadshub.loadtest.Checks
+ * -Dexec.classpathScope=test, with the same loadtest.jdbc-* settings as {@link LoadTest}.
+ */
+public class Checks {
+
+    // db_query_seconds_count{outcome="success",query="UserRepository.insertIfAbsent",} 1.0
+    private static final Pattern QUERY_COUNT =
+            Pattern.compile("^db_query_seconds_count\\{.*query=\"([^\"]+)\".*} (\\S+)$", Pattern.MULTILINE);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    private Checks(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        int failed;
+        try (TestStack stack = TestStack.withSchema(settings)) {
+            // Frequent heartbeats commit the change stream's response right away
+            Checks checks = new Checks(stack.startApp("--changes.heartbeat=PT0.2S"));
+
+            Map<String, Check> all = new LinkedHashMap<>();
+            all.put("register with a taken email is one statement and 409", checks::registerTakenEmail);
+            all.put("change stream with a stream token sees another client's write", checks::changeStreamToken);
+
+            failed = 0;
+            for (Map.Entry<String, Check> check : all.entrySet()) {
+                try {
+                    check.getValue().run();
+                    log("PASS " + check.getKey());
+                } catch (Exception | AssertionError e) {
+                    failed++;
+                    log("FAIL " + check.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+        log(failed == 0 ? "All checks passed" : failed + " checks failed");
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    /* =====================
+       CHECKS
+       ===================== */
+
+    private void registerTakenEmail() throws Exception {
+        expectStatus(201, register("taken@checks.local"));
+
+        Map<String, Double> before = queryCounts();
+        expectStatus(409, register("Taken@Checks.LOCAL"));
+        Map<String, Double> after = queryCounts();
+
+        Map<String, Double> issued = new HashMap<>();
+        after.forEach((query, count) -> {
+            double delta = count - before.getOrDefault(query, 0.0);
+            if (delta > 0) issued.put(query, delta);
+        });
+        expect(issued.equals(Map.of("UserRepository.insertIfAbsent", 1.0)),
+                "expected one insertIfAbsent, repository calls were " + issued);
+    }
+
+    private void changeStreamToken() throws Exception {
+        String email = "stream@checks.local";
+        HttpResponse<String> registered = register(email);
+        expectStatus(201, registered);
+        String subscriberToken = field(registered, "token");
+        // Same user, separate session: another tab or device
+        HttpResponse<String> login = post("/api/auth/login",
+                Map.of("email", email, "password", LoadTestSettings.PASSWORD), null);
+        expectStatus(200, login);
+        String writerToken = field(login, "token");
+
+        HttpResponse<String> issued = post("/api/leads/changes/token", Map.of(), subscriberToken);
+        expectStatus(200, issued);
+        String streamToken = field(issued, "token");
+
+        // A stream token is not a bearer token
+        HttpResponse<String> asBearer = http.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/leads/stats"))
+                        .header("Authorization", "Bearer " + streamToken)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        expectStatus(401, asBearer);
+
+        URI changes = URI.create(baseUrl + "/api/leads/changes?stream_token=" + streamToken);
+        HttpResponse<Stream<String>> stream = http.send(
+                HttpRequest.newBuilder(changes).header("Accept", "text/event-stream").build(),
+                HttpResponse.BodyHandlers.ofLines());
+        expect(stream.statusCode() == 200, "expected 200 from the change stream, got " + stream.statusCode());
+
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> stream.body().forEach(lines::add), "checks-sse");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            expect(lines.poll(5, TimeUnit.SECONDS) != null,
+                    "no heartbeat on the change stream");
+
+            // The shared LISTEN may still be starting, so write until an event arrives
+            String id = null;
+            for (int attempt = 0; attempt < 10 && id == null; attempt++) {
+                HttpResponse<String> created = post("/api/leads",
+                        Map.of("name", "Streamed " + attempt, "email", "streamed" + attempt + "@checks.local"),
+                        writerToken);
+                expectStatus(201, created);
+                String leadId = field(created, "id");
+
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+                String line;
+                while ((line = lines.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) != null) {
+                    if (line.startsWith("data:") && line.contains("\"created\"") && line.contains(leadId)) {
+                        id = leadId;
+                        break;
+                    }
+                }
+            }
+            expect(id != null, "no created event on the change stream");
+
+            // Single use: the same token can't open a second stream
+            HttpResponse<String> replay = http.send(
+                    HttpRequest.newBuilder(changes).header("Accept", "text/event-stream").build(),
+                    HttpResponse.BodyHandlers.ofString());
+            expectStatus(401, replay);
+        } finally {
+            stream.body().close();
+        }
+    }
+
+    /* =====================
+       HELPERS
+       ===================== */
+
+    private HttpResponse<String> register(String email) throws Exception {
+        return post("/api/auth/register", Map.of("email", email, "password", LoadTestSettings.PASSWORD), null);
+    }
+
+    private HttpResponse<String> post(String path, Object body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String field(HttpResponse<String> response, String name) throws Exception {
+        return objectMapper.readTree(response.body()).path(name).asText();
+    }
+
+    // Repository calls so far by query, from the db.query timer
+    private Map<String, Double> queryCounts() throws Exception {
+        String scrape = http.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofString()
+        ).body();
+
+        Map<String, Double> counts = new HashMap<>();
+        Matcher matcher = QUERY_COUNT.matcher(scrape);
+        while (matcher.find()) {
+            counts.merge(matcher.group(1), Double.parseDouble(matcher.group(2)), Double::sum);
+        }
+        return counts;
+    }
+
+    private static void expectStatus(int status, HttpResponse<String> response) {
+        expect(response.statusCode() == status,
+                "expected " + status + " from " + response.uri().getPath()
+                        + ", got " + response.statusCode() + " " + response.body());
+    }
+
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    private static void log(String message) {
+        System.out.println("[checks] " + message);
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,72 @@
+package com.leadshub.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders report.json as a single self-contained HTML page.
+ */
+final class HtmlReport {
+
+    private static final List<String> COLUMNS = List.of(
+            "count", "errors", "throughput_per_sec", "mean_ms",
+            "p50_ms", "p90_ms", "p99_ms", "p999_ms", "max_ms"
+    );
+
+    private HtmlReport() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static String render(Map<String, Object> report) {
+        StringBuilder html = new StringBuilder("""
+                <!DOCTYPE html>
+                <html><head><meta charset="utf-8"><title>LeadsHub load test</title>
+                <style>
+                  body { font-family: sans-serif; margin: 2em; }
+                  table { border-collapse: collapse; }
+                  th, td { border: 1px solid #ccc; padding: 4px 10px; text-align: right; }
+                  th:first-child, td:first-child { text-align: left; }
+                  tr.total { font-weight: bold; }
+                </style></head><body>
+                <h1>LeadsHub load test</h1>
+                """);
+
+        html.append("<p>Finished ").append(escape(report.get("finished_at"))).append("</p>\n");
+
+        html.append("<h2>Settings</h2>\n<table>\n");
+        for (Map.Entry<String, Object> setting : ((Map<String, Object>) report.get("settings")).entrySet()) {
+            html.append("<tr><td>").append(escape(setting.getKey()))
+                    .append("</td><td>").append(escape(setting.getValue())).append("</td></tr>\n");
+        }
+        html.append("</table>\n");
+
+        html.append("<h2>Results</h2>\n<table>\n<tr><th>operation</th>");
+        for (String column : COLUMNS) {
+            html.append("<th>").append(column).append("</th>");
+        }
+        html.append("</tr>\n");
+        for (Map.Entry<String, Object> operation : ((Map<String, Object>) report.get("operations")).entrySet()) {
+            row(html, operation.getKey(), (Map<String, Object>) operation.getValue(), false);
+        }
+        row(html, "total", (Map<String, Object>) report.get("total"), true);
+        html.append("</table>\n</body></html>\n");
+
+        return html.toString();
+    }
+
+    private static void row(StringBuilder html, String name, Map<String, Object> stats, boolean total) {
+        html.append(total ? "<tr class=\"total\">" : "<tr>")
+                .append("<td>").append(escape(name)).append("</td>");
+        for (String column : COLUMNS) {
+            html.append("<td>").append(escape(stats.get(column))).append("</td>");
+        }
+        html.append("</tr>\n");
+    }
+
+    private static String escape(Object value) {
+        return String.valueOf(value)
+                .replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+}
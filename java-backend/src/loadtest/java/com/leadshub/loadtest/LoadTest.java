@@ -0,0 +1,104 @@
+package com.leadshub.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * End-to-end load test: Postgres, the real application on a random port, and
+ * {@code loadtest.concurrency} {@link VirtualUser}s running the configured mix.
+ * See {@link LoadTestSettings} for the knobs.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        log("Settings " + settings.describe());
+
+        log("Applying " + settings.schema());
+        try (TestStack stack = TestStack.withSchema(settings)) {
+            try (Connection connection = stack.connect()) {
+                log("Seeding " + settings.users() + " users and " + settings.leads() + " leads");
+                long start = System.nanoTime();
+                List<UUID> users = SyntheticData.seed(connection, settings);
+                log("Seeded " + users.size() + " users in " + Duration.ofNanos(System.nanoTime() - start).toSeconds() + "s");
+            }
+
+            String baseUrl = stack.startApp();
+            Map<String, Object> summary = drive(settings, baseUrl);
+            writeReport(settings, summary);
+        }
+    }
+
+    private static Map<String, Object> drive(LoadTestSettings settings, String baseUrl) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        Results results = new Results();
+
+        long startNanos = System.nanoTime();
+        long measureFrom = startNanos + settings.warmup().toNanos();
+        long deadline = measureFrom + settings.duration().toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency(); i++) {
+            String email = String.format(SyntheticData.EMAIL_FORMAT, i % settings.users());
+            running.add(workers.submit(new VirtualUser(
+                    http, objectMapper, baseUrl, email, settings, results, deadline
+            )));
+        }
+
+        log("Warming up for " + settings.warmup());
+        Thread.sleep(settings.warmup().toMillis());
+        results.startRecording();
+        log("Measuring for " + settings.duration());
+
+        for (Future<?> worker : running) {
+            worker.get();
+        }
+        workers.shutdown();
+
+        double seconds = (System.nanoTime() - measureFrom) / 1e9;
+        return results.summarize(seconds);
+    }
+
+    private static void writeReport(LoadTestSettings settings, Map<String, Object> summary) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finished_at", Instant.now().toString());
+        report.put("settings", settings.describe());
+        report.putAll(summary);
+
+        Files.createDirectories(settings.reportDir());
+        Path json = settings.reportDir().resolve("report.json");
+        Path html = settings.reportDir().resolve("report.html");
+
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(json.toFile(), report);
+        Files.writeString(html, HtmlReport.render(report));
+
+        log("Total " + summary.get("total"));
+        log("Report written to " + json.toAbsolutePath() + " and " + html.getFileName());
+    }
+
+    private static void log(String message) {
+        System.out.println("[loadtest] " + message);
+    }
+}
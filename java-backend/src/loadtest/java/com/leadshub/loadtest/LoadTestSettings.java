@@ -0,0 +1,89 @@
+package com.leadshub.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test knobs, read from loadtest.* system properties:
+ *
+ * <ul>
+ *   <li>{@code loadtest.users} (10): seeded accounts, all with password {@link #PASSWORD}</li>
+ *   <li>{@code loadtest.leads} (1000000): synthetic leads spread over those users</li>
+ *   <li>{@code loadtest.concurrency} (32): virtual users, each sending requests back to back</li>
+ *   <li>{@code loadtest.warmup} (PT15S) and {@code loadtest.duration} (PT60S): warmup is not recorded</li>
+ *   <li>{@code loadtest.mix}: operation weights, e.g. {@code list:30,search:20,create:10}</li>
+ *   <li>{@code loadtest.schema} (../database/leadshub.sql)</li>
+ *   <li>{@code loadtest.jdbc-url}, {@code loadtest.jdbc-user}, {@code loadtest.jdbc-password}:
+ *       use an already running, empty local database instead of the embedded one</li>
+ *   <li>{@code loadtest.report-dir} (target/loadtest)</li>
+ * </ul>
+ *
+ * Application settings can be overridden the same way, e.g. {@code -Dcache.leads.enabled=false}.
+ */
+record LoadTestSettings(
+        int users,
+        long leads,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        Path schema,
+        String jdbcUrl,
+        String jdbcUser,
+        String jdbcPassword,
+        Path reportDir
+) {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private static final String DEFAULT_MIX =
+            "login:2,list:30,search:20,deep_page:8,cursor_page:10,create:12,update:13,delete:5";
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 10),
+                Long.getLong("loadtest.leads", 1_000_000L),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("loadtest.schema", "../database/leadshub.sql")),
+                System.getProperty("loadtest.jdbc-url"),
+                System.getProperty("loadtest.jdbc-user", "postgres"),
+                System.getProperty("loadtest.jdbc-password", ""),
+                Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"))
+        );
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no operations");
+        }
+        return mix;
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", users);
+        settings.put("leads", leads);
+        settings.put("concurrency", concurrency);
+        settings.put("warmup", warmup.toString());
+        settings.put("duration", duration.toString());
+        settings.put("mix", mix);
+        settings.put("database", jdbcUrl != null ? jdbcUrl : "embedded");
+        return settings;
+    }
+}
@@ -0,0 +1,24 @@
+package com.leadshub.loadtest;
+
+/**
+ * Request types in the mixed workload.
+ */
+enum Operation {
+    /** POST /api/auth/login, a full BCrypt check */
+    LOGIN,
+    /** First page, optionally filtered by status */
+    LIST,
+    /** ilike or fulltext search on a name prefix */
+    SEARCH,
+    /** Offset page far from the start, with an estimated count */
+    DEEP_PAGE,
+    /** Keyset page following a cursor from the previous response */
+    CURSOR_PAGE,
+    CREATE,
+    UPDATE,
+    DELETE;
+
+    String label() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,91 @@
+package com.leadshub.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms (microseconds) and error counts per operation. Nothing is
+ * recorded until {@link #startRecording()}, so warmup traffic is left out.
+ */
+class Results {
+
+    // Up to one minute at three significant digits
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private volatile boolean recording;
+
+    Results() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void startRecording() {
+        recording = true;
+    }
+
+    void record(Operation operation, long nanos, boolean ok) {
+        if (!recording) return;
+
+        latencies.get(operation).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_MICROS));
+        if (!ok) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Per-operation and overall count, errors, throughput and latency percentiles
+     * in milliseconds. Operations that never ran are left out.
+     */
+    Map<String, Object> summarize(double seconds) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Histogram all = new Histogram(MAX_MICROS, 3);
+        long allErrors = 0;
+
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() == 0) continue;
+
+            long errorCount = errors.get(operation).sum();
+            operations.put(operation.label(), stats(histogram, errorCount, seconds));
+            all.add(histogram);
+            allErrors += errorCount;
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total", stats(all, allErrors, seconds));
+        summary.put("operations", operations);
+        return summary;
+    }
+
+    private static Map<String, Object> stats(Histogram histogram, long errorCount, double seconds) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", histogram.getTotalCount());
+        stats.put("errors", errorCount);
+        stats.put("throughput_per_sec", round(histogram.getTotalCount() / seconds));
+        stats.put("mean_ms", round(histogram.getMean() / 1000));
+        stats.put("p50_ms", millis(histogram, 50));
+        stats.put("p90_ms", millis(histogram, 90));
+        stats.put("p99_ms", millis(histogram, 99));
+        stats.put("p999_ms", millis(histogram, 99.9));
+        stats.put("max_ms", round(histogram.getMaxValue() / 1000.0));
+        return stats;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return round(histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,88 @@
+package com.leadshub.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.file.Files;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies the schema and generates users and leads server-side with
+ * generate_series, so millions of rows don't cross the wire.
+ */
+final class SyntheticData {
+
+    static final String EMAIL_FORMAT = "loadtest-%d@example.com";
+
+    // Rows per INSERT: bounds the transition tables the statement triggers see
+    private static final int BATCH = 50_000;
+
+    private SyntheticData() {
+    }
+
+    static void applySchema(Connection connection, LoadTestSettings settings) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(settings.schema()));
+        }
+    }
+
+    /**
+     * @return the ids of the created users, in the order of their email numbers
+     */
+    static List<UUID> seed(Connection connection, LoadTestSettings settings) throws SQLException {
+        int strength = Integer.getInteger("security.bcrypt.strength", 10);
+        String passwordHash = new BCryptPasswordEncoder(strength).encode(LoadTestSettings.PASSWORD);
+
+        List<UUID> userIds = new ArrayList<>();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO public.users (id, email, password_hash) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < settings.users(); i++) {
+                UUID id = UUID.randomUUID();
+                insert.setObject(1, id);
+                insert.setString(2, String.format(EMAIL_FORMAT, i));
+                insert.setString(3, passwordHash);
+                insert.addBatch();
+                userIds.add(id);
+            }
+            insert.executeBatch();
+        }
+
+        Array users = connection.createArrayOf("uuid", userIds.toArray());
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO public.leads (user_id, name, email, status, company, phone, notes, created_at)
+                SELECT (?::uuid[])[1 + g % ?],
+                       first || ' ' || last,
+                       lower(first || '.' || last) || g || '@example.com',
+                       (ARRAY['New', 'Engaged', 'Proposal Sent', 'Closed-Won', 'Closed-Lost']::lead_status[])[1 + g % 5],
+                       (ARRAY['Acme Corp', 'Globex', 'Initech', 'Umbrella', 'Hooli', 'Wayne Enterprises', NULL])[1 + g % 7],
+                       '+27 82 ' || lpad((g % 10000000)::text, 7, '0'),
+                       CASE WHEN g % 3 = 0 THEN 'Met at the expo, follow up on pricing.' END,
+                       now() - make_interval(mins => g::int)
+                FROM generate_series(?::bigint, ?::bigint) AS g,
+                     LATERAL (SELECT (ARRAY['Thandi', 'John', 'Maria', 'Sipho', 'Wei', 'Aisha', 'Pieter', 'Lerato',
+                                            'Ahmed', 'Olga', 'Kenji', 'Zanele', 'Carlos', 'Fatima', 'Liam', 'Nomsa'])[1 + (g * 7) % 16] AS first,
+                                     (ARRAY['Maluleke', 'Smith', 'Garcia', 'Nkosi', 'Chen', 'Khan', 'van Wyk', 'Mokoena',
+                                            'Ivanova', 'Tanaka', 'Dlamini', 'Silva', 'Haddad', 'Murphy', 'Botha', 'Naidoo'])[1 + (g * 11 / 16) % 16] AS last
+                             ) AS names
+                """)) {
+            for (long from = 1; from <= settings.leads(); from += BATCH) {
+                insert.setArray(1, users);
+                insert.setInt(2, userIds.size());
+                insert.setLong(3, from);
+                insert.setLong(4, Math.min(from + BATCH - 1, settings.leads()));
+                insert.executeUpdate();
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+        return userIds;
+    }
+}
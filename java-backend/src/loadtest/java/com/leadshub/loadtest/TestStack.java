@@ -0,0 +1,88 @@
+package com.leadshub.loadtest;
+
+import com.leadshub.LeadsHubApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Postgres with the schema applied (embedded, unless {@code loadtest.jdbc-url} is set)
+ * and, once started, the real application on a random port. Shared by {@link LoadTest}
+ * and {@link Checks}.
+ */
+final class TestStack implements AutoCloseable {
+
+    private final LoadTestSettings settings;
+    private final EmbeddedPostgres embedded;
+    private final String jdbcUrl;
+    private ConfigurableApplicationContext app;
+
+    private TestStack(LoadTestSettings settings, EmbeddedPostgres embedded, String jdbcUrl) {
+        this.settings = settings;
+        this.embedded = embedded;
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    static TestStack withSchema(LoadTestSettings settings) throws Exception {
+        EmbeddedPostgres embedded = null;
+        String jdbcUrl = settings.jdbcUrl();
+        if (jdbcUrl == null) {
+            embedded = EmbeddedPostgres.builder()
+                    .setServerConfig("max_connections", "200")
+                    .setServerConfig("shared_buffers", "256MB")
+                    .start();
+            jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+        }
+
+        TestStack stack = new TestStack(settings, embedded, jdbcUrl);
+        try (Connection connection = stack.connect()) {
+            SyntheticData.applySchema(connection, settings);
+        } catch (Exception e) {
+            stack.close();
+            throw e;
+        }
+        return stack;
+    }
+
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, settings.jdbcUser(), settings.jdbcPassword());
+    }
+
+    /**
+     * @param args extra application arguments, e.g. {@code --ratelimit.enabled=true}
+     * @return the application's base URL
+     */
+    String startApp(String... args) {
+        List<String> all = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.r2dbc.url=" + jdbcUrl.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", ""),
+                "--spring.r2dbc.username=" + settings.jdbcUser(),
+                "--spring.r2dbc.password=" + settings.jdbcPassword(),
+                "--ratelimit.enabled=" + System.getProperty("ratelimit.enabled", "false"),
+                "--logging.level.com.leadshub=INFO"
+        ));
+        all.addAll(List.of(args));
+
+        app = new SpringApplicationBuilder(LeadsHubApplication.class).run(all.toArray(String[]::new));
+        return "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            if (app != null) {
+                app.close();
+            }
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.leadshub.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One closed-loop client: logged in as a seeded user, it sends the next request as
+ * soon as the previous one answers. Update and delete work on leads this client
+ * created, so concurrent clients never race for the same row.
+ */
+class VirtualUser implements Runnable {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_OWN_LEADS = 1000;
+
+    private static final List<String> STATUSES =
+            List.of("New", "Engaged", "Proposal Sent", "Closed-Won", "Closed-Lost");
+    private static final List<String> PREFIXES =
+            List.of("th", "jo", "mar", "sip", "wei", "ais", "mal", "smi", "nko", "che", "mok", "dla");
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String email;
+    private final long leadsPerUser;
+    private final int[] cumulativeWeights;
+    private final Operation[] operations;
+    private final Results results;
+    private final long deadlineNanos;
+
+    private final Deque<String> ownLeads = new ArrayDeque<>();
+    private String token;
+    private String cursor = "";
+
+    VirtualUser(
+            HttpClient http,
+            ObjectMapper objectMapper,
+            String baseUrl,
+            String email,
+            LoadTestSettings settings,
+            Results results,
+            long deadlineNanos
+    ) {
+        this.http = http;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.leadsPerUser = Math.max(settings.leads() / settings.users(), 1);
+        this.results = results;
+        this.deadlineNanos = deadlineNanos;
+
+        this.operations = settings.mix().keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += settings.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            login();
+        } catch (Exception e) {
+            throw new IllegalStateException("Login failed for " + email, e);
+        }
+
+        while (System.nanoTime() < deadlineNanos) {
+            Operation operation = next();
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = execute(operation);
+            } catch (Exception e) {
+                ok = false;
+            }
+            results.record(operation, System.nanoTime() - start, ok);
+        }
+    }
+
+    private Operation next() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    private boolean execute(Operation operation) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        return switch (operation) {
+            case LOGIN -> login();
+            case LIST -> ok(get("/api/leads?page=1&page_size=" + PAGE_SIZE
+                    + (random.nextBoolean() ? "&status=" + encode(STATUSES.get(random.nextInt(STATUSES.size()))) : "")));
+            case SEARCH -> ok(get("/api/leads?page_size=" + PAGE_SIZE
+                    + "&search=" + PREFIXES.get(random.nextInt(PREFIXES.size()))
+                    + "&search_mode=" + (random.nextBoolean() ? "fulltext" : "ilike")));
+            case DEEP_PAGE -> {
+                long lastPage = Math.max(leadsPerUser / PAGE_SIZE, 1);
+                long page = lastPage / 2 + random.nextLong(lastPage / 2 + 1);
+                yield ok(get("/api/leads?page=" + page + "&page_size=" + PAGE_SIZE + "&count=estimated"));
+            }
+            case CURSOR_PAGE -> {
+                HttpResponse<String> response = get("/api/leads?page_size=" + PAGE_SIZE + "&cursor=" + encode(cursor));
+                if (!ok(response)) yield false;
+                JsonNode next = objectMapper.readTree(response.body()).path("pagination").path("next_cursor");
+                cursor = next.isTextual() ? next.asText() : "";
+                yield true;
+            }
+            case CREATE -> create();
+            case UPDATE -> {
+                String id = ownLeads.peekLast();
+                if (id == null) yield create();
+                yield ok(send("PUT", "/api/leads/" + id, Map.of("notes", "Updated " + System.nanoTime())));
+            }
+            case DELETE -> {
+                String id = ownLeads.pollFirst();
+                if (id == null) yield create();
+                yield ok(send("DELETE", "/api/leads/" + id, null));
+            }
+        };
+    }
+
+    private boolean login() throws Exception {
+        HttpResponse<String> response = http.send(request("/api/auth/login")
+                        .header("Content-Type", "application/json")
+                        .POST(body(Map.of("email", email, "password", LoadTestSettings.PASSWORD)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (!ok(response)) return false;
+
+        token = objectMapper.readTree(response.body()).path("token").asText();
+        return true;
+    }
+
+    private boolean create() throws Exception {
+        long n = System.nanoTime();
+        HttpResponse<String> response = send("POST", "/api/leads", Map.of(
+                "name", "Load Test " + n,
+                "email", "load" + n + "@example.com",
+                "company", "Loadtest Ltd"
+        ));
+        if (!ok(response)) return false;
+
+        ownLeads.addLast(objectMapper.readTree(response.body()).path("id").asText());
+        if (ownLeads.size() > MAX_OWN_LEADS) {
+            ownLeads.pollFirst();
+        }
+        return true;
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return http.send(authorized(path).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> send(String method, String path, Object payload) throws Exception {
+        HttpRequest.Builder builder = authorized(path);
+        if (payload != null) {
+            builder.header("Content-Type", "application/json").method(method, body(payload));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return request(path).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path));
+    }
+
+    private HttpRequest.BodyPublisher body(Object payload) throws Exception {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload));
+    }
+
+    private static boolean ok(HttpResponse<?> response) {
+        return response.statusCode() < 400;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -2,8 +2,10 @@ package com.leadshub;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class LeadsHubApplication {
     public static void main(String[] args) {
         SpringApplication.run(LeadsHubApplication.class, args);
@@ -0,0 +1,94 @@
+package com.leadshub.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CBOR (application/cbor) and Smile (application/x-jackson-smile) alongside JSON,
+ * picked by the Accept and Content-Type headers. Both reuse the application's
+ * ObjectMapper settings, except that dates go out as epoch milliseconds instead
+ * of ISO strings. JSON stays the default for clients that accept anything.
+ */
+@Configuration
+public class CodecConfig {
+
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Bean
+    public CodecCustomizer binaryCodecs(ObjectMapper objectMapper) {
+        ObjectMapper cbor = binary(objectMapper.copyWith(new CBORFactory()));
+        ObjectMapper smile = binary(objectMapper.copyWith(new SmileFactory()));
+
+        return configurer -> {
+            // Without explicit media types these codecs fall back to the JSON ones
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, APPLICATION_SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, APPLICATION_SMILE));
+
+            // Custom writers are consulted before the default ones, and with Accept: */*
+            // the first writer wins, so JSON has to be registered ahead of CBOR here
+            configurer.customCodecs().registerWithDefaultConfig(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().registerWithDefaultConfig(new CborEncoder(cbor));
+            configurer.customCodecs().registerWithDefaultConfig(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+        };
+    }
+
+    private static ObjectMapper binary(ObjectMapper mapper) {
+        return mapper
+                .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    }
+
+    /**
+     * Jackson2CborEncoder refuses {@link #encode} outright, which is how WebFlux
+     * writes every body. A single value is encoded as is and a stream as one array.
+     */
+    private static class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(
+                Publisher<?> inputStream,
+                DataBufferFactory bufferFactory,
+                ResolvableType elementType,
+                MimeType mimeType,
+                Map<String, Object> hints
+        ) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono
+                        .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                        .flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream)
+                    .collectList()
+                    .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
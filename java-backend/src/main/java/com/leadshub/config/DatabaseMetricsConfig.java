@@ -0,0 +1,58 @@
+package com.leadshub.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.time.Duration;
+
+/**
+ * Query timers for every repository method and acquire timing for the
+ * connection pool. Pool gauges (r2dbc.pool.*) come from Spring Boot.
+ */
+@Configuration
+public class DatabaseMetricsConfig {
+
+    // Static, and the registry resolved lazily: post-processors are created before
+    // the beans they process, including the registry's own dependencies
+    @Bean
+    public static BeanPostProcessor databaseMetricsPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            Environment environment
+    ) {
+        Duration slowThreshold = environment.getProperty(
+                "db.slow-query-threshold", Duration.class, Duration.ofMillis(500)
+        );
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                // Before initialization: the repository proxy is built in afterPropertiesSet
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxy, information) ->
+                                    proxy.addAdvice(new QueryTimingInterceptor(
+                                            information.getRepositoryInterface().getSimpleName(),
+                                            meterRegistry,
+                                            slowThreshold
+                                    ))));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionFactory connectionFactory
+                        && !(bean instanceof TimedConnectionFactory)) {
+                    return new TimedConnectionFactory(connectionFactory, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+}
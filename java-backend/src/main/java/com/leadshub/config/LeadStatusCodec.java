@@ -0,0 +1,109 @@
+package com.leadshub.config;
+
+import com.leadshub.model.LeadStatus;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.client.EncodedParameter;
+import io.r2dbc.postgresql.codec.Codec;
+import io.r2dbc.postgresql.codec.CodecMetadata;
+import io.r2dbc.postgresql.codec.CodecRegistry;
+import io.r2dbc.postgresql.codec.PostgresTypeIdentifier;
+import io.r2dbc.postgresql.extension.CodecRegistrar;
+import io.r2dbc.postgresql.message.Format;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Binds {@link LeadStatus} as the PostgreSQL lead_status enum and reads it back,
+ * mapping by label ("Proposal Sent") rather than by constant name. Parameters
+ * carry the enum's oid, so status = $1 needs no cast and matches the status
+ * indexes. Reads as String still go to the driver's own codecs.
+ */
+class LeadStatusCodec implements Codec<LeadStatus>, CodecMetadata {
+
+    static final String TYPE_NAME = "lead_status";
+
+    private final ByteBufAllocator allocator;
+    private final int oid;
+
+    LeadStatusCodec(ByteBufAllocator allocator, int oid) {
+        this.allocator = allocator;
+        this.oid = oid;
+    }
+
+    @Override
+    public boolean canDecode(int dataType, Format format, Class<?> type) {
+        return dataType == oid && type.isAssignableFrom(LeadStatus.class);
+    }
+
+    @Override
+    public boolean canEncode(Object value) {
+        return value instanceof LeadStatus;
+    }
+
+    @Override
+    public boolean canEncodeNull(Class<?> type) {
+        return type == LeadStatus.class;
+    }
+
+    // Text and binary forms of an enum are both just the label
+    @Override
+    public LeadStatus decode(ByteBuf buffer, int dataType, Format format, Class<? extends LeadStatus> type) {
+        if (buffer == null) {
+            return null;
+        }
+        String label = buffer.readCharSequence(buffer.readableBytes(), StandardCharsets.UTF_8).toString();
+        return LeadStatus.fromLabel(label)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown lead_status: " + label));
+    }
+
+    @Override
+    public EncodedParameter encode(Object value) {
+        return encode(value, oid);
+    }
+
+    @Override
+    public EncodedParameter encode(Object value, int dataType) {
+        String label = ((LeadStatus) value).getLabel();
+        return new EncodedParameter(
+                Format.FORMAT_TEXT, oid, Mono.fromSupplier(() -> ByteBufUtil.writeUtf8(allocator, label))
+        );
+    }
+
+    @Override
+    public EncodedParameter encodeNull() {
+        return new EncodedParameter(Format.FORMAT_TEXT, oid, EncodedParameter.NULL_VALUE);
+    }
+
+    @Override
+    public Class<?> type() {
+        return LeadStatus.class;
+    }
+
+    @Override
+    public Iterable<PostgresTypeIdentifier> getDataTypes() {
+        return List.of(() -> oid);
+    }
+
+    /**
+     * Looks up the enum's oid once per connection and registers the codec ahead of
+     * the built-in ones. Nothing is registered if the type doesn't exist yet.
+     */
+    static class Registrar implements CodecRegistrar {
+
+        @Override
+        public Publisher<Void> register(PostgresqlConnection connection, ByteBufAllocator allocator, CodecRegistry registry) {
+            return connection
+                    .createStatement("SELECT oid FROM pg_catalog.pg_type WHERE typname = '" + TYPE_NAME + "'")
+                    .execute()
+                    .flatMap(result -> result.map((row, meta) -> row.get("oid", Integer.class)))
+                    .doOnNext(oid -> registry.addFirst(new LeadStatusCodec(allocator, oid)))
+                    .then();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.leadshub.config;
+
+import com.leadshub.repository.LeadFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Times every reactive repository method as {@code db.query}, tagged with
+ * query=Repository.method and the outcome. A Mono is timed from subscription to
+ * termination, a Flux only until its first row (or termination, if none): a
+ * streamed export is read at the client's pace, which says nothing about the query.
+ *
+ * <p>Calls slower than the threshold are logged with the shape of their arguments
+ * (types, lengths, which filters are set) but never the values, which hold PII.
+ */
+@Slf4j
+class QueryTimingInterceptor implements MethodInterceptor {
+
+    private final String repository;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Duration slowThreshold;
+
+    QueryTimingInterceptor(String repository, ObjectProvider<MeterRegistry> meterRegistry, Duration slowThreshold) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.slowThreshold = slowThreshold;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        String query = repository + "." + invocation.getMethod().getName();
+
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return mono.doFinally(signal -> record(query, invocation.getArguments(), signal, start));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                long start = System.nanoTime();
+                AtomicBoolean recorded = new AtomicBoolean();
+                Consumer<SignalType> recordOnce = signal -> {
+                    if (recorded.compareAndSet(false, true)) {
+                        record(query, invocation.getArguments(), signal, start);
+                    }
+                };
+                return flux
+                        .doOnNext(row -> recordOnce.accept(SignalType.ON_NEXT))
+                        .doFinally(recordOnce);
+            });
+        }
+        return result;
+    }
+
+    private void record(String query, Object[] args, SignalType signal, long start) {
+        long nanos = System.nanoTime() - start;
+
+        Timer.builder("db.query")
+                .tag("query", query)
+                .tag("outcome", switch (signal) {
+                    case ON_ERROR -> "error";
+                    case CANCEL -> "cancelled";
+                    default -> "success";
+                })
+                .register(meterRegistry.getObject())
+                .record(Duration.ofNanos(nanos));
+
+        if (nanos >= slowThreshold.toNanos()) {
+            log.warn("Slow query {} took {} ms ({}), args [{}]",
+                    query, nanos / 1_000_000, signal, shapes(args));
+        }
+    }
+
+    private static String shapes(Object[] args) {
+        return Arrays.stream(args)
+                .map(QueryTimingInterceptor::shape)
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String shape(Object arg) {
+        if (arg == null) return "null";
+        if (arg instanceof LeadFilter filter) return filter.shape();
+        // limits and offsets: harmless and the usual suspect in a slow page
+        if (arg instanceof Number number) return number.toString();
+        if (arg instanceof CharSequence text) return "String(" + text.length() + ")";
+        if (arg instanceof Collection<?> collection) return "Collection[" + collection.size() + "]";
+        if (arg.getClass().isArray()) {
+            return arg.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(arg) + "]";
+        }
+        return arg.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,37 @@
+package com.leadshub.config;
+
+import com.leadshub.model.LeadStatus;
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+import org.springframework.boot.autoconfigure.r2dbc.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.r2dbc.convert.EnumWriteSupport;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+
+import java.util.List;
+
+/**
+ * Native lead_status binding: the driver gets {@link LeadStatusCodec}, and Spring
+ * Data is told to hand LeadStatus to the driver as is instead of writing its name.
+ */
+@Configuration
+public class R2dbcConfig {
+
+    @Bean
+    public ConnectionFactoryOptionsBuilderCustomizer leadStatusCodec() {
+        return builder -> builder.option(
+                PostgresqlConnectionFactoryProvider.EXTENSIONS, List.of(new LeadStatusCodec.Registrar())
+        );
+    }
+
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions() {
+        return R2dbcCustomConversions.of(PostgresDialect.INSTANCE, new LeadStatusWriter());
+    }
+
+    @WritingConverter
+    static class LeadStatusWriter extends EnumWriteSupport<LeadStatus> {
+    }
+}
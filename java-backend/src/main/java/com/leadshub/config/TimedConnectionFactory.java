@@ -0,0 +1,59 @@
+package com.leadshub.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records how long callers wait for a connection as {@code r2dbc.pool.acquire}.
+ * Implements {@link Wrapped} so the pool behind it still gets its
+ * r2dbc.pool.* gauges.
+ */
+class TimedConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory delegate;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    TimedConnectionFactory(ConnectionFactory delegate, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return Mono.from(delegate.create())
+                    .doFinally(signal -> sample.stop(Timer.builder("r2dbc.pool.acquire")
+                            .tag("outcome", switch (signal) {
+                                case ON_ERROR -> "error";
+                                case CANCEL -> "cancelled";
+                                default -> "success";
+                            })
+                            .register(meterRegistry.getObject())));
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    // Spring Boot declares the pool bean with destroyMethod = "dispose"
+    public void dispose() {
+        if (delegate instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+}
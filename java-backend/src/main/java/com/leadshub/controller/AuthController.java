@@ -2,11 +2,13 @@ package com.leadshub.controller;
 
 import com.leadshub.dto.AuthRequest;
 import com.leadshub.dto.AuthResponse;
+import com.leadshub.model.User;
+import com.leadshub.repository.UserRepository;
 import com.leadshub.security.JwtUtil;
+import com.leadshub.security.PasswordHasher;
 import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
@@ -14,22 +16,23 @@ import reactor.core.publisher.Mono;
 import java.util.Map;
 import java.util.UUID;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    private final DatabaseClient databaseClient;
+    private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
 
     public AuthController(
-            DatabaseClient databaseClient,
+            UserRepository userRepository,
             JwtUtil jwtUtil,
-            PasswordEncoder passwordEncoder
+            PasswordHasher passwordHasher
     ) {
-        this.databaseClient = databaseClient;
+        this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
     }
 
     // =====================
@@ -39,48 +42,40 @@ public class AuthController {
     public Mono<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
         String email = request.getEmail().toLowerCase().trim();
 
-        return databaseClient
-                .sql("""
-                        SELECT id, email, password_hash
-                        FROM public.users
-                        WHERE LOWER(email) = :email
-                     """)
-                .bind("email", email)
-                .map((row, meta) -> Map.of(
-                        "id", row.get("id", UUID.class),
-                        "email", row.get("email", String.class),
-                        "password", row.get("password_hash", String.class)
-                ))
-                .one()
+        return userRepository
+                .findByEmail(email)
                 .switchIfEmpty(Mono.error(
                         new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials")
                 ))
-                .flatMap(user -> {
-                    UUID userId = (UUID) user.get("id");
-                    String hashedPassword = (String) user.get("password");
+                .flatMap(user -> passwordHasher
+                        .matches(request.getPassword(), user.getPasswordHash())
+                        .flatMap(matches -> {
+                            if (!matches) {
+                                return Mono.error(
+                                        new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials")
+                                );
+                            }
 
-                    if (!passwordEncoder.matches(request.getPassword(), hashedPassword)) {
-                        return Mono.error(
-                                new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials")
-                        );
-                    }
+                            rehashIfNeeded(user, request.getPassword());
+                            return Mono.just(toResponse(user));
+                        }));
+    }
 
-                    String token = jwtUtil.generateToken(
-                            userId.toString(),               // ✅ FIX
-                            user.get("email").toString()
-                    );
+    /**
+     * Upgrades a hash made with a different BCrypt cost while the plain password is at hand.
+     * Runs in the background, so the login neither waits for it nor fails with it.
+     */
+    private void rehashIfNeeded(User user, String password) {
+        if (!passwordHasher.needsRehash(user.getPasswordHash())) {
+            return;
+        }
 
-                    return Mono.just(
-                            AuthResponse.builder()
-                                    .token(token)
-                                    .expiresAt(jwtUtil.getExpirationMillis()) // ✅ FIX
-                                    .user(Map.of(
-                                            "id", userId.toString(),
-                                            "email", user.get("email").toString()
-                                    ))
-                                    .build()
-                    );
-                });
+        passwordHasher.encode(password)
+                .flatMap(newHash -> userRepository.updatePasswordHash(user.getId(), newHash))
+                .subscribe(
+                        updated -> { },
+                        e -> log.warn("Rehashing the password of user {} failed", user.getId(), e)
+                );
     }
 
     // =====================
@@ -91,43 +86,26 @@ public class AuthController {
     public Mono<AuthResponse> register(@Valid @RequestBody AuthRequest request) {
         String email = request.getEmail().toLowerCase().trim();
 
-        return databaseClient
-                .sql("SELECT id FROM public.users WHERE LOWER(email) = :email")
-                .bind("email", email)
-                .fetch()
-                .one()
-                .flatMap(existing -> Mono.<AuthResponse>error(
+        // One statement: an address taken in any letter case inserts nothing
+        return passwordHasher
+                .encode(request.getPassword())
+                .flatMap(passwordHash -> userRepository.insertIfAbsent(UUID.randomUUID(), email, passwordHash))
+                .switchIfEmpty(Mono.error(
                         new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered")
                 ))
-                .switchIfEmpty(Mono.defer(() -> {
-                    UUID userId = UUID.randomUUID();
-                    String passwordHash = passwordEncoder.encode(request.getPassword());
+                .map(this::toResponse);
+    }
 
-                    return databaseClient
-                            .sql("""
-                                INSERT INTO public.users (id, email, password_hash)
-                                VALUES (:id, :email, :password)
-                            """)
-                            .bind("id", userId)
-                            .bind("email", email)
-                            .bind("password", passwordHash)
-                            .fetch()
-                            .rowsUpdated()
-                            .map(rows -> {
-                                String token = jwtUtil.generateToken(
-                                        userId.toString(),    // ✅ FIX
-                                        email
-                                );
+    private AuthResponse toResponse(User user) {
+        String userId = user.getId().toString();
 
-                                return AuthResponse.builder()
-                                        .token(token)
-                                        .expiresAt(jwtUtil.getExpirationMillis()) // ✅ FIX
-                                        .user(Map.of(
-                                                "id", userId.toString(),
-                                                "email", email
-                                        ))
-                                        .build();
-                            });
-                }));
+        return AuthResponse.builder()
+                .token(jwtUtil.generateToken(userId, user.getEmail()))
+                .expiresAt(jwtUtil.getExpirationMillis())
+                .user(Map.of(
+                        "id", userId,
+                        "email", user.getEmail()
+                ))
+                .build();
     }
 }
@@ -1,27 +1,79 @@
 package com.leadshub.controller;
 
+import com.leadshub.dto.BulkLeadRequest;
+import com.leadshub.dto.BulkResult;
+import com.leadshub.dto.ImportBatchResult;
+import com.leadshub.dto.LeadChangeEvent;
+import com.leadshub.dto.LeadChanges;
+import com.leadshub.dto.LeadCursor;
 import com.leadshub.dto.LeadRequest;
+import com.leadshub.dto.LeadStats;
+import com.leadshub.dto.LeadSuggestion;
 import com.leadshub.dto.LeadsResponse;
+import com.leadshub.dto.StreamTokenResponse;
 import com.leadshub.model.Lead;
+import com.leadshub.model.LeadStatus;
+import com.leadshub.repository.LeadFields;
+import com.leadshub.repository.LeadFilter;
+import com.leadshub.repository.LeadSort;
+import com.leadshub.repository.SearchMode;
+import com.leadshub.security.JwtUtil;
+import com.leadshub.service.CountMode;
+import com.leadshub.service.LeadChangeStream;
+import com.leadshub.service.LeadExportService;
+import com.leadshub.service.LeadImportService;
 import com.leadshub.service.LeadService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.LongFunction;
 
 @RestController
 @RequestMapping("/api/leads")
 public class LeadController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final LeadService leadService;
+    private final LeadImportService leadImportService;
+    private final LeadExportService leadExportService;
+    private final LeadChangeStream leadChangeStream;
+    private final JwtUtil jwtUtil;
+    private final boolean weakEtags;
 
-    public LeadController(LeadService leadService) {
+    public LeadController(
+            LeadService leadService,
+            LeadImportService leadImportService,
+            LeadExportService leadExportService,
+            LeadChangeStream leadChangeStream,
+            JwtUtil jwtUtil,
+            @Value("${server.compression.enabled:false}") boolean compressionEnabled
+    ) {
         this.leadService = leadService;
+        this.leadImportService = leadImportService;
+        this.leadExportService = leadExportService;
+        this.leadChangeStream = leadChangeStream;
+        this.jwtUtil = jwtUtil;
+        // A compressed body is not byte-identical to the uncompressed one the tag was computed for
+        this.weakEtags = compressionEnabled;
     }
 
     private UUID getUserId(Authentication auth) {
@@ -32,42 +84,298 @@ public class LeadController {
         }
     }
 
+    /**
+     * Conditional GET: tags the response with the user's lead version and answers
+     * 304 Not Modified, without calling {@code body}, when If-None-Match still
+     * matches. Otherwise {@code body} gets the same version to key its cached read,
+     * so the tag and a cached payload always come from the same version. The version
+     * is read before the body, so a concurrent write can only make the tag older than
+     * the payload, never newer.
+     */
+    private <T> Mono<T> unlessNotModified(
+            ServerWebExchange exchange,
+            UUID userId,
+            LongFunction<Mono<T>> body
+    ) {
+        return leadService.getVersion(userId).flatMap(version -> {
+            exchange.getResponse().getHeaders().setCacheControl("private, no-cache");
+            // The same URL answers in JSON, CBOR or Smile, gzipped or not
+            exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+
+            if (exchange.checkNotModified(etag(exchange, userId, version))) {
+                return Mono.empty();
+            }
+            return body.apply(version);
+        });
+    }
+
+    // Same URL under another login or Accept header must not match
+    private String etag(ServerWebExchange exchange, UUID userId, long version) {
+        ServerHttpRequest request = exchange.getRequest();
+        String variant = userId + "|" + request.getURI().getRawPath()
+                + "?" + request.getURI().getRawQuery()
+                + "|" + request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+
+        String tag = "\"" + version + "-"
+                + DigestUtils.md5DigestAsHex(variant.getBytes(StandardCharsets.UTF_8)) + "\"";
+        return weakEtags ? "W/" + tag : tag;
+    }
+
+    /**
+     * Parses the filter query parameters shared by the listing endpoints.
+     */
+    private LeadFilter toFilter(
+            Authentication auth,
+            String status,
+            String search,
+            String searchMode,
+            String dateFrom,
+            String dateTo,
+            boolean includeArchived
+    ) {
+        LeadFilter.LeadFilterBuilder filter = LeadFilter.builder()
+                .userId(getUserId(auth))
+                .search(search)
+                .includeArchived(includeArchived);
+
+        if (status != null) {
+            filter.status(LeadStatus.fromLabel(status).orElseThrow(() ->
+                    new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status")));
+        }
+
+        try {
+            filter.searchMode(SearchMode.from(searchMode));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search mode");
+        }
+
+        try {
+            if (dateFrom != null) filter.dateFrom(OffsetDateTime.parse(dateFrom));
+            if (dateTo != null) filter.dateTo(OffsetDateTime.parse(dateTo));
+        } catch (Exception e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date format");
+        }
+
+        return filter.build();
+    }
+
+    /**
+     * Offset paging via page/page_size (default), or keyset paging when a
+     * cursor parameter is present: send an empty cursor for the first page,
+     * then echo back pagination.next_cursor.
+     * count=exact|estimated|none selects how offset paging computes totals,
+     * search_mode=ilike|fulltext how the search term is matched.
+     * include_archived=true also returns leads moved to the archive partition.
+     * fields=name,status,... returns only those properties of each lead and
+     * reads only their columns.
+     * sort_field=name|email|company|status|created_at|updated_at and
+     * sort_order=asc|desc order offset pages; cursor pages are always newest first.
+     * page_size is 1 to 100 in both modes.
+     * Supports If-None-Match.
+     */
     @GetMapping
     public Mono<LeadsResponse> getLeads(
             Authentication auth,
+            ServerWebExchange exchange,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "ilike") String search_mode,
             @RequestParam(required = false) String date_from,
             @RequestParam(required = false) String date_to,
+            @RequestParam(defaultValue = "false") boolean include_archived,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int page_size
+            @RequestParam(defaultValue = "10") int page_size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String sort_field,
+            @RequestParam(required = false) String sort_order
     ) {
-        OffsetDateTime dateFrom = null;
-        OffsetDateTime dateTo = null;
+        LeadFilter filter = toFilter(auth, status, search, search_mode, date_from, date_to, include_archived);
+
+        if (page_size < 1 || page_size > MAX_PAGE_SIZE) {
+            return Mono.error(new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "page_size must be between 1 and " + MAX_PAGE_SIZE
+            ));
+        }
 
+        if (sort_field != null || sort_order != null) {
+            try {
+                filter.setSort(LeadSort.of(
+                        sort_field != null ? sort_field : "created_at",
+                        sort_order != null ? sort_order : "desc"
+                ));
+            } catch (IllegalArgumentException e) {
+                return Mono.error(
+                        new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sort: " + e.getMessage())
+                );
+            }
+        }
+
+        LeadFields projection;
         try {
-            if (date_from != null) dateFrom = OffsetDateTime.parse(date_from);
-            if (date_to != null) dateTo = OffsetDateTime.parse(date_to);
-        } catch (Exception e) {
+            projection = fields != null ? LeadFields.parse(fields) : null;
+        } catch (IllegalArgumentException e) {
+            return Mono.error(
+                    new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid fields: " + e.getMessage())
+            );
+        }
+
+        CountMode countMode;
+        try {
+            countMode = CountMode.from(count);
+        } catch (IllegalArgumentException e) {
             return Mono.error(
-                    new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date format")
+                    new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid count mode")
             );
         }
 
-        return leadService.getLeads(
-                getUserId(auth),
-                status,
-                search,
-                dateFrom,
-                dateTo,
-                page,
-                page_size
+        if (cursor != null) {
+            if (filter.getSort() != null && !filter.getSort().isRecentFirst()) {
+                return Mono.error(new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST, "Cursor paging is always newest first; use page for other sorts"
+                ));
+            }
+
+            LeadCursor after;
+            try {
+                after = cursor.isBlank() ? null : LeadCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return Mono.error(
+                        new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor")
+                );
+            }
+
+            return unlessNotModified(exchange, filter.getUserId(),
+                    version -> leadService.getLeadsAfter(filter, projection, after, page_size, version));
+        }
+
+        return unlessNotModified(exchange, filter.getUserId(),
+                version -> leadService.getLeads(filter, projection, page, page_size, countMode, version));
+    }
+
+    @GetMapping("/suggest")
+    public Mono<List<LeadSuggestion>> suggest(
+            Authentication auth,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return leadService.suggest(getUserId(auth), q, Math.min(Math.max(limit, 1), 50));
+    }
+
+    /**
+     * Server-sent events for writes to the user's leads: created, updated and
+     * deleted with the lead ids, or resync when events may have been missed.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LeadChangeEvent>> changes(Authentication auth) {
+        return leadChangeStream.subscribe(getUserId(auth));
+    }
+
+    /**
+     * A single-use token for GET /changes?stream_token=..., for browsers: EventSource
+     * cannot send an Authorization header.
+     */
+    @PostMapping("/changes/token")
+    public StreamTokenResponse changesToken(Authentication auth) {
+        return StreamTokenResponse.builder()
+                .token(jwtUtil.generateStreamToken(getUserId(auth).toString()))
+                .expiresIn(jwtUtil.getStreamTokenTtlMillis())
+                .build();
+    }
+
+    /**
+     * Pipeline totals across all of the user's leads, not just the current page.
+     */
+    @GetMapping("/stats")
+    public Mono<LeadStats> getStats(Authentication auth) {
+        return leadService.getStats(getUserId(auth));
+    }
+
+    /**
+     * Bulk import from text/csv (header row with name, email and optional status,
+     * company, phone, notes) or application/x-ndjson (one LeadRequest per line).
+     * Streams one result per written batch.
+     */
+    @PostMapping(
+            value = "/import",
+            consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public Flux<ImportBatchResult> importLeads(
+            Authentication auth,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestBody Flux<DataBuffer> body
+    ) {
+        return leadImportService.importLeads(getUserId(auth), body, MediaType.parseMediaType(contentType));
+    }
+
+    /**
+     * Streams every lead matching the list filters as NDJSON (default) or CSV (format=csv).
+     */
+    @GetMapping(value = "/export", params = "format!=csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Lead> exportLeads(
+            Authentication auth,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "ilike") String search_mode,
+            @RequestParam(required = false) String date_from,
+            @RequestParam(required = false) String date_to,
+            @RequestParam(defaultValue = "false") boolean include_archived
+    ) {
+        return leadExportService.exportLeads(
+                toFilter(auth, status, search, search_mode, date_from, date_to, include_archived)
+        );
+    }
+
+    @GetMapping(value = "/export", params = "format=csv", produces = "text/csv")
+    public Flux<String> exportLeadsCsv(
+            Authentication auth,
+            ServerHttpResponse response,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "ilike") String search_mode,
+            @RequestParam(required = false) String date_from,
+            @RequestParam(required = false) String date_to,
+            @RequestParam(defaultValue = "false") boolean include_archived
+    ) {
+        response.getHeaders().set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"leads.csv\"");
+
+        return leadExportService.exportCsv(
+                toFilter(auth, status, search, search_mode, date_from, date_to, include_archived)
         );
     }
 
+    /**
+     * Updates every lead selected by ids or by filter in set-based chunks.
+     */
+    @PostMapping("/bulk/update")
+    public Mono<BulkResult> bulkUpdate(
+            Authentication auth,
+            @Valid @RequestBody BulkLeadRequest request
+    ) {
+        return leadService.bulkUpdate(getUserId(auth), request);
+    }
+
+    @PostMapping("/bulk/delete")
+    public Mono<BulkResult> bulkDelete(
+            Authentication auth,
+            @Valid @RequestBody BulkLeadRequest request
+    ) {
+        return leadService.bulkDelete(getUserId(auth), request);
+    }
+
+    /**
+     * Supports If-None-Match.
+     */
     @GetMapping("/{id}")
-    public Mono<Lead> getLead(Authentication auth, @PathVariable UUID id) {
-        return leadService.getLeadById(id, getUserId(auth));
+    public Mono<Lead> getLead(
+            Authentication auth,
+            ServerWebExchange exchange,
+            @PathVariable UUID id
+    ) {
+        UUID userId = getUserId(auth);
+        return unlessNotModified(exchange, userId, version -> leadService.getLeadById(id, userId, version));
     }
 
     @PostMapping
@@ -79,13 +387,17 @@ public class LeadController {
         return leadService.createLead(getUserId(auth), request);
     }
 
+    /**
+     * Writes only the fields present in the body. Send the lead's version to have
+     * the update rejected with 409 if someone else changed it first.
+     */
     @PutMapping("/{id}")
     public Mono<Lead> updateLead(
             Authentication auth,
             @PathVariable UUID id,
-            @Valid @RequestBody LeadRequest request
+            @Valid @RequestBody LeadChanges changes
     ) {
-        return leadService.updateLead(id, getUserId(auth), request);
+        return leadService.updateLead(id, getUserId(auth), changes);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,32 @@
+package com.leadshub.dto;
+
+import jakarta.validation.Valid;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selects leads either by id or by the same filters as GET /api/leads (exactly one of the two).
+ */
+@Data
+public class BulkLeadRequest {
+
+    private List<UUID> ids;
+    private Filter filter;
+
+    /** Bulk update only */
+    @Valid
+    private LeadChanges set;
+
+    @Data
+    public static class Filter {
+        private String status;
+        private String search;
+        private String searchMode = "ilike";
+        private OffsetDateTime dateFrom;
+        private OffsetDateTime dateTo;
+        private boolean includeArchived;
+    }
+}
@@ -0,0 +1,32 @@
+package com.leadshub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one batch of a bulk import, streamed back as soon as the batch is written.
+ * Row numbers count data rows from 1, excluding the CSV header.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportBatchResult {
+    private long batch;
+    private long firstRow;
+    private long lastRow;
+    private long inserted;
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
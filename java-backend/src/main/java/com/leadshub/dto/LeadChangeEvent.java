@@ -0,0 +1,34 @@
+package com.leadshub.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One write to a user's leads, as published on the lead_changes channel.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadChangeEvent {
+
+    public static final String RESYNC = "resync";
+
+    /** Read from the notification only; subscribers already know who they are */
+    @JsonProperty(value = "user_id", access = JsonProperty.Access.WRITE_ONLY)
+    private UUID userId;
+
+    /** created, updated, deleted, or resync when events may have been missed */
+    private String type;
+
+    /** Affected leads; null when one statement touched too many to list */
+    private List<UUID> ids;
+
+    public static LeadChangeEvent resync() {
+        return new LeadChangeEvent(null, RESYNC, null);
+    }
+}
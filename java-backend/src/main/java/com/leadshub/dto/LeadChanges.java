@@ -0,0 +1,38 @@
+package com.leadshub.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+/**
+ * Field changes for PUT /api/leads/{id} and bulk updates. Null fields are left untouched.
+ */
+@Data
+public class LeadChanges {
+    // Optional, but when given must have some text, like LeadRequest's @NotBlank
+    @Pattern(regexp = "(?s).*\\S.*", message = "Name must not be blank")
+    private String name;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Email must not be blank")
+    @Email(message = "Invalid email format")
+    private String email;
+
+    private String status;
+    private String company;
+    private String phone;
+    private String notes;
+
+    /**
+     * Version the client last read, for PUT /api/leads/{id}: the update is rejected
+     * with 409 if the lead changed since. Omit to update unconditionally.
+     * Ignored by bulk updates.
+     */
+    private Long version;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return name == null && email == null && status == null
+                && company == null && phone == null && notes == null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.leadshub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset position for GET /api/leads.
+ * Points at the last (created_at, id) pair the client has already seen.
+ */
+@Getter
+@AllArgsConstructor
+public class LeadCursor {
+
+    private final OffsetDateTime createdAt;
+    private final UUID id;
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static LeadCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new LeadCursor(
+                    OffsetDateTime.parse(raw.substring(0, sep)),
+                    UUID.fromString(raw.substring(sep + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
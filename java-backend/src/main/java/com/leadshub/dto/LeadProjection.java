@@ -0,0 +1,24 @@
+package com.leadshub.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A lead reduced to the fields requested with ?fields=. Serializes as exactly
+ * those fields (nulls included); id and createdAt are kept for cursor paging.
+ */
+@Getter
+@AllArgsConstructor
+public class LeadProjection {
+
+    private final UUID id;
+    private final OffsetDateTime createdAt;
+
+    @JsonValue
+    private final Map<String, Object> fields;
+}
@@ -0,0 +1,25 @@
+package com.leadshub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadStats {
+    private long total;
+
+    /** Leads not yet Closed-Won or Closed-Lost */
+    private long active;
+
+    private long won;
+    private long lost;
+
+    /** Every status, zero included, in pipeline order */
+    private Map<String, Long> byStatus;
+}
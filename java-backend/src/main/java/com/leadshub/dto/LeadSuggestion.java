@@ -0,0 +1,20 @@
+package com.leadshub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadSuggestion {
+    private UUID id;
+    private String displayId;
+    private String name;
+    private String email;
+    private String company;
+}
@@ -1,6 +1,5 @@
 package com.leadshub.dto;
 
-import com.leadshub.model.Lead;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +13,9 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 public class LeadsResponse {
-    private List<Lead> data;
+    /**
+     * Leads, or {@link LeadProjection}s when the request named its fields
+     */
+    private List<?> data;
     private Map<String, Object> pagination;
 }
@@ -0,0 +1,16 @@
+package com.leadshub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamTokenResponse {
+    private String token;
+    // Milliseconds until the token can no longer open the stream
+    private long expiresIn;
+}
@@ -47,4 +47,9 @@ public class Lead {
 
     @Column("updated_at")
     private OffsetDateTime updatedAt;
+
+    /**
+     * Incremented by every update; PUT with a stale version is rejected
+     */
+    private Long version;
 }
@@ -1,9 +1,38 @@
 package com.leadshub.model;
 
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Optional;
+
 public enum LeadStatus {
-    New,
-    Engaged,
-    Proposal_Sent,
-    Closed_Won,
-    Closed_Lost
+    New("New"),
+    Engaged("Engaged"),
+    Proposal_Sent("Proposal Sent"),
+    Closed_Won("Closed-Won"),
+    Closed_Lost("Closed-Lost");
+
+    /**
+     * Value of the PostgreSQL lead_status enum, as sent by the frontend
+     */
+    private final String label;
+
+    LeadStatus(String label) {
+        this.label = label;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    public boolean isClosed() {
+        return this == Closed_Won || this == Closed_Lost;
+    }
+
+    public static Optional<LeadStatus> fromLabel(String label) {
+        for (LeadStatus status : values()) {
+            if (status.label.equals(label)) return Optional.of(status);
+        }
+        return Optional.empty();
+    }
 }
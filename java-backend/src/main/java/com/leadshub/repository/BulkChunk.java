@@ -0,0 +1,22 @@
+package com.leadshub.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * One keyset chunk of a filtered bulk write.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkChunk {
+
+    /** Rows selected for the chunk; fewer than the limit means this was the last one */
+    private final long scanned;
+
+    private final long affected;
+
+    /** Highest id in the chunk, where the next chunk starts; null if the chunk was empty */
+    private final UUID lastId;
+}
@@ -0,0 +1,101 @@
+package com.leadshub.repository;
+
+import com.leadshub.dto.LeadProjection;
+import com.leadshub.model.LeadStatus;
+import io.r2dbc.spi.Row;
+import lombok.EqualsAndHashCode;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Sparse fieldset for GET /api/leads?fields=: the Lead JSON properties to return,
+ * and the only columns a list query reads. id and created_at are always read,
+ * since keyset paging needs them, but only returned when asked for.
+ */
+@EqualsAndHashCode(of = "names")
+public final class LeadFields {
+
+    // JSON property -> column, in response order
+    private static final Map<String, Column> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", new Column("id", UUID.class));
+        COLUMNS.put("userId", new Column("user_id", UUID.class));
+        COLUMNS.put("leadNumber", new Column("lead_number", Integer.class));
+        COLUMNS.put("displayId", new Column("display_id", String.class));
+        COLUMNS.put("name", new Column("name", String.class));
+        COLUMNS.put("email", new Column("email", String.class));
+        COLUMNS.put("status", new Column("status", LeadStatus.class));
+        COLUMNS.put("company", new Column("company", String.class));
+        COLUMNS.put("phone", new Column("phone", String.class));
+        COLUMNS.put("notes", new Column("notes", String.class));
+        COLUMNS.put("createdAt", new Column("created_at", OffsetDateTime.class));
+        COLUMNS.put("updatedAt", new Column("updated_at", OffsetDateTime.class));
+        COLUMNS.put("version", new Column("version", Long.class));
+    }
+
+    private final List<String> names;
+    private final String select;
+
+    private LeadFields(List<String> names) {
+        this.names = names;
+
+        Set<String> columns = new LinkedHashSet<>(List.of("id", "created_at"));
+        for (String name : names) {
+            columns.add(COLUMNS.get(name).name());
+        }
+        this.select = String.join(", ", columns);
+    }
+
+    /**
+     * @param fields comma-separated property names, e.g. "name,status,createdAt"
+     * @throws IllegalArgumentException if none are given or one is unknown
+     */
+    public static LeadFields parse(String fields) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (!COLUMNS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("No fields requested");
+        }
+
+        // Canonical order, so "name,id" and "id,name" share a cache entry
+        return new LeadFields(COLUMNS.keySet().stream().filter(requested::contains).toList());
+    }
+
+    /**
+     * Select list for the requested fields.
+     */
+    String select() {
+        return select;
+    }
+
+    LeadProjection read(Row row) {
+        Map<String, Object> values = new LinkedHashMap<>(names.size() * 2);
+        for (String name : names) {
+            Column column = COLUMNS.get(name);
+            values.put(name, row.get(column.name(), column.type()));
+        }
+
+        return new LeadProjection(
+                row.get("id", UUID.class),
+                row.get("created_at", OffsetDateTime.class),
+                values
+        );
+    }
+
+    private record Column(String name, Class<?> type) {
+    }
+}
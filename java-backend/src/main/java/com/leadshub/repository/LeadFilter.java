@@ -0,0 +1,58 @@
+package com.leadshub.repository;
+
+import com.leadshub.model.LeadStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Filter set shared by every lead listing query, plus the requested order.
+ * Null fields are not applied.
+ */
+@Data
+@Builder
+public class LeadFilter {
+
+    private UUID userId;
+    private LeadStatus status;
+    private String search;
+
+    @Builder.Default
+    private SearchMode searchMode = SearchMode.ILIKE;
+
+    private OffsetDateTime dateFrom;
+    private OffsetDateTime dateTo;
+
+    /**
+     * Also read leads_archive; by default only the hot partition is queried.
+     */
+    private boolean includeArchived;
+
+    /**
+     * Null for the default order: newest first, or most relevant first for ranked searches.
+     */
+    private LeadSort sort;
+
+    /**
+     * Results are ordered by relevance rather than recency.
+     */
+    public boolean isRanked() {
+        return sort == null && searchMode == SearchMode.FULLTEXT && LeadSql.prefixQuery(search) != null;
+    }
+
+    /**
+     * Which filters are set, without their values, for the slow-query log.
+     */
+    public String shape() {
+        StringBuilder shape = new StringBuilder("LeadFilter{").append(searchMode.label());
+        if (status != null) shape.append(", status");
+        if (search != null) shape.append(", search(").append(search.length()).append(')');
+        if (dateFrom != null) shape.append(", dateFrom");
+        if (dateTo != null) shape.append(", dateTo");
+        if (sort != null) shape.append(", sort ").append(sort);
+        if (includeArchived) shape.append(", archived");
+        return shape.append('}').toString();
+    }
+}
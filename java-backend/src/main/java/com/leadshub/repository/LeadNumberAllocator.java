@@ -0,0 +1,90 @@
+package com.leadshub.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hands out lead_number values so inserts can carry lead_number and display_id
+ * themselves instead of going through the column default and the display id
+ * trigger. Numbers come from leads_lead_number_seq, reserved block-size at a time
+ * in one statement, so rows inserted outside the app never collide with them.
+ *
+ * <p>Numbers still reserved at shutdown are never used, leaving a gap, and with
+ * several instances numbers are unique but not in creation order.
+ */
+@Component
+public class LeadNumberAllocator {
+
+    private final DatabaseClient databaseClient;
+    private final int blockSize;
+
+    // Reserved and not yet handed out
+    private final Queue<Integer> reserved = new ConcurrentLinkedQueue<>();
+
+    public LeadNumberAllocator(
+            DatabaseClient databaseClient,
+            @Value("${lead-numbers.block-size:100}") int blockSize
+    ) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("lead-numbers.block-size must be at least 1");
+        }
+        this.databaseClient = databaseClient;
+        this.blockSize = blockSize;
+    }
+
+    public Mono<Integer> next() {
+        return next(1).map(numbers -> numbers.get(0));
+    }
+
+    /**
+     * {@code count} unused numbers. Counts of a block or more are reserved on
+     * their own; smaller ones are served from the current block.
+     */
+    public Mono<List<Integer>> next(int count) {
+        if (count >= blockSize) {
+            return reserve(count);
+        }
+
+        return Mono.defer(() -> {
+            List<Integer> numbers = new ArrayList<>(count);
+            Integer number;
+            while (numbers.size() < count && (number = reserved.poll()) != null) {
+                numbers.add(number);
+            }
+            if (numbers.size() == count) {
+                return Mono.just(numbers);
+            }
+
+            // Concurrent callers may each reserve a block; the surplus is pooled either way
+            return reserve(blockSize).map(block -> {
+                int missing = count - numbers.size();
+                numbers.addAll(block.subList(0, missing));
+                reserved.addAll(block.subList(missing, block.size()));
+                return numbers;
+            });
+        });
+    }
+
+    /**
+     * LD-00042; numbers past 99999 keep all their digits.
+     */
+    public static String displayId(int leadNumber) {
+        return String.format("LD-%05d", leadNumber);
+    }
+
+    private Mono<List<Integer>> reserve(int count) {
+        return databaseClient
+                .sql("SELECT nextval('public.leads_lead_number_seq') FROM generate_series(1, :count)")
+                .bind("count", count)
+                .map((row, meta) -> row.get(0, Long.class).intValue())
+                .all()
+                .collectList();
+    }
+}
@@ -1,7 +1,6 @@
 package com.leadshub.repository;
 
 import com.leadshub.model.Lead;
-import com.leadshub.model.LeadStatus;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
@@ -11,8 +10,12 @@ import reactor.core.publisher.Mono;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
+/**
+ * Filtered listing lives in {@link LeadRepositoryCustom}: the WHERE and ORDER BY
+ * clauses depend on the search strategy, so they are built per request.
+ */
 @Repository
-public interface LeadRepository extends ReactiveCrudRepository<Lead, UUID> {
+public interface LeadRepository extends ReactiveCrudRepository<Lead, UUID>, LeadRepositoryCustom {
 
     /* =====================
        BASIC OWNERSHIP
@@ -22,59 +25,69 @@ public interface LeadRepository extends ReactiveCrudRepository<Lead, UUID> {
 
     Mono<Lead> findByIdAndUserId(UUID id, UUID userId);
 
-    Mono<Void> deleteByIdAndUserId(UUID id, UUID userId);
+    Mono<Boolean> existsByIdAndUserId(UUID id, UUID userId);
+
+    // Empty when nothing was deleted
+    @Query("DELETE FROM public.leads WHERE id = :id AND user_id = :userId RETURNING id")
+    Mono<UUID> deleteByIdAndUserId(UUID id, UUID userId);
 
     /* =====================
-       FILTERED SEARCH
+       STATUS COUNTERS
        ===================== */
 
-    @Query("""
-        SELECT *
-        FROM public.leads
-        WHERE user_id = :userId
-          AND (:status IS NULL OR status = :status)
-          AND (
-                :search IS NULL
-                OR name ILIKE '%' || :search || '%'
-                OR email ILIKE '%' || :search || '%'
-              )
-          AND (:dateFrom IS NULL OR created_at >= :dateFrom)
-          AND (:dateTo IS NULL OR created_at <= :dateTo)
-        ORDER BY created_at DESC
-        LIMIT :limit OFFSET :offset
-    """)
-    Flux<Lead> findAllFiltered(
-            UUID userId,
-            LeadStatus status,
-            String search,
-            OffsetDateTime dateFrom,
-            OffsetDateTime dateTo,
-            int limit,
-            long offset
-    );
+    // Maintained by triggers on leads; statuses with no leads may be missing or zero
+    @Query("SELECT status::text AS status, count FROM public.lead_status_counts WHERE user_id = :userId")
+    Flux<StatusCount> countByStatus(UUID userId);
+
+    /**
+     * Recounts one user's leads and repairs their counters, locking them meanwhile.
+     * Emits the number of counters that were corrected.
+     */
+    @Query("SELECT reconcile_lead_status_counts(:userId)")
+    Mono<Long> reconcileStatusCounts(UUID userId);
 
     /* =====================
-       COUNT (PAGINATION)
+       ARCHIVE
        ===================== */
 
+    /**
+     * Moves up to {@code limit} closed leads last changed before {@code before}
+     * from leads_hot to leads_archive. Emits the owner of every lead moved.
+     */
+    @Query("""
+            UPDATE public.leads SET archived = true
+            WHERE NOT archived AND id IN (
+                SELECT id FROM public.leads_hot
+                WHERE status IN ('Closed-Won', 'Closed-Lost') AND updated_at < :before
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING user_id
+            """)
+    Flux<UUID> archiveClosed(OffsetDateTime before, int limit);
+
+    /**
+     * Moves up to {@code limit} archived leads that are no longer closed back to
+     * leads_hot. Emits the owner of every lead moved. Leads reopened through the
+     * API are moved by the update itself; this catches writes made outside the app.
+     */
     @Query("""
-        SELECT COUNT(*)
-        FROM public.leads
-        WHERE user_id = :userId
-          AND (:status IS NULL OR status = :status)
-          AND (
-                :search IS NULL
-                OR name ILIKE '%' || :search || '%'
-                OR email ILIKE '%' || :search || '%'
-              )
-          AND (:dateFrom IS NULL OR created_at >= :dateFrom)
-          AND (:dateTo IS NULL OR created_at <= :dateTo)
-    """)
-    Mono<Long> countFiltered(
-            UUID userId,
-            LeadStatus status,
-            String search,
-            OffsetDateTime dateFrom,
-            OffsetDateTime dateTo
-    );
+            UPDATE public.leads SET archived = false
+            WHERE archived AND id IN (
+                SELECT id FROM public.leads_archive
+                WHERE status NOT IN ('Closed-Won', 'Closed-Lost')
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING user_id
+            """)
+    Flux<UUID> restoreReopened(int limit);
+
+    /* =====================
+       CHANGE MARKER
+       ===================== */
+
+    // Bumped by triggers on every statement that writes the user's leads
+    @Query("SELECT COALESCE((SELECT version FROM public.lead_versions WHERE user_id = :userId), 0)")
+    Mono<Long> findVersion(UUID userId);
 }
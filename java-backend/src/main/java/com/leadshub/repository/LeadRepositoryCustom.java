@@ -0,0 +1,82 @@
+package com.leadshub.repository;
+
+import com.leadshub.dto.LeadChanges;
+import com.leadshub.dto.LeadCursor;
+import com.leadshub.dto.LeadProjection;
+import com.leadshub.dto.LeadRequest;
+import com.leadshub.model.Lead;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface LeadRepositoryCustom {
+
+    /**
+     * Offset page in the filter's sort order; by default newest first (or most
+     * relevant first for ranked searches).
+     */
+    Flux<Lead> findFiltered(LeadFilter filter, int limit, long offset);
+
+    /**
+     * Keyset page after the cursor, newest first whatever the filter's sort.
+     * Pass a null cursor for the first page.
+     */
+    Flux<Lead> findFilteredAfter(LeadFilter filter, LeadCursor cursor, int limit);
+
+    /**
+     * {@link #findFiltered}, reading only the columns behind {@code fields}.
+     */
+    Flux<LeadProjection> findProjected(LeadFilter filter, LeadFields fields, int limit, long offset);
+
+    /**
+     * {@link #findFilteredAfter}, reading only the columns behind {@code fields}.
+     */
+    Flux<LeadProjection> findProjectedAfter(LeadFilter filter, LeadFields fields, LeadCursor cursor, int limit);
+
+    /**
+     * Every matching lead, newest first, read from a server-side cursor
+     * {@code fetchSize} rows at a time. Run inside a transaction.
+     */
+    Flux<Lead> streamFiltered(LeadFilter filter, int fetchSize);
+
+    Mono<Long> countFiltered(LeadFilter filter);
+
+    /**
+     * Planner estimate for the same predicate as {@link #countFiltered}.
+     */
+    Mono<Long> estimateFiltered(LeadFilter filter);
+
+    /**
+     * Inserts all rows for one user with a single multi-row statement.
+     * Status values must be lead_status labels; null status means 'New'.
+     *
+     * @param leadNumbers one per row, from {@link LeadNumberAllocator}
+     * @return number of rows inserted
+     */
+    Mono<Long> insertAll(UUID userId, List<LeadRequest> rows, List<Integer> leadNumbers);
+
+    /**
+     * Writes only the given fields of one lead and returns the updated row.
+     * Empty if the lead does not exist for the user or, when {@code expectedVersion}
+     * is given, its version no longer matches.
+     */
+    Mono<Lead> updateFields(UUID id, UUID userId, LeadChanges changes, Long expectedVersion);
+
+    /* =====================
+       SET-BASED WRITES
+       ===================== */
+
+    Mono<Long> updateByIds(UUID userId, List<UUID> ids, LeadChanges changes);
+
+    Mono<Long> deleteByIds(UUID userId, List<UUID> ids);
+
+    /**
+     * Applies the changes to the next {@code limit} matching leads in id order after
+     * {@code afterId} (null to start), as one statement.
+     */
+    Mono<BulkChunk> updateChunk(LeadFilter filter, LeadChanges changes, UUID afterId, int limit);
+
+    Mono<BulkChunk> deleteChunk(LeadFilter filter, UUID afterId, int limit);
+}
@@ -0,0 +1,326 @@
+package com.leadshub.repository;
+
+import com.leadshub.dto.LeadChanges;
+import com.leadshub.dto.LeadCursor;
+import com.leadshub.dto.LeadProjection;
+import com.leadshub.dto.LeadRequest;
+import com.leadshub.model.Lead;
+import com.leadshub.model.LeadStatus;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+public class LeadRepositoryImpl implements LeadRepositoryCustom {
+
+    static final String COLUMNS = """
+            id, user_id, lead_number, display_id, name, email, status,
+            company, phone, notes, created_at, updated_at, version""";
+
+    private static final String RECENT_FIRST = "created_at DESC, id DESC";
+
+    private static final String RELEVANCE_FIRST =
+            "ts_rank_cd(search_vector, to_tsquery('simple', :tsquery)) DESC, " + RECENT_FIRST;
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    public LeadRepositoryImpl(DatabaseClient databaseClient, R2dbcConverter converter) {
+        this.databaseClient = databaseClient;
+        this.converter = converter;
+    }
+
+    @Override
+    public Flux<Lead> findFiltered(LeadFilter filter, int limit, long offset) {
+        return page(filter, COLUMNS, limit, offset)
+                .map((row, meta) -> converter.read(Lead.class, row, meta))
+                .all();
+    }
+
+    @Override
+    public Flux<LeadProjection> findProjected(LeadFilter filter, LeadFields fields, int limit, long offset) {
+        return page(filter, fields.select(), limit, offset)
+                .map((row, meta) -> fields.read(row))
+                .all();
+    }
+
+    @Override
+    public Flux<Lead> findFilteredAfter(LeadFilter filter, LeadCursor cursor, int limit) {
+        return pageAfter(filter, COLUMNS, cursor, limit)
+                .map((row, meta) -> converter.read(Lead.class, row, meta))
+                .all();
+    }
+
+    @Override
+    public Flux<LeadProjection> findProjectedAfter(LeadFilter filter, LeadFields fields, LeadCursor cursor, int limit) {
+        return pageAfter(filter, fields.select(), cursor, limit)
+                .map((row, meta) -> fields.read(row))
+                .all();
+    }
+
+    private DatabaseClient.GenericExecuteSpec page(LeadFilter filter, String columns, int limit, long offset) {
+        LeadSql sql = LeadSql.where(filter);
+        String orderBy = filter.isRanked() ? RELEVANCE_FIRST
+                : filter.getSort() != null ? filter.getSort().orderBy()
+                : RECENT_FIRST;
+
+        return sql.bind(databaseClient.sql(
+                        "SELECT " + columns + " FROM public.leads WHERE " + sql.where()
+                                + " ORDER BY " + orderBy
+                                + " LIMIT :limit OFFSET :offset"))
+                .bind("limit", limit)
+                .bind("offset", offset);
+    }
+
+    private DatabaseClient.GenericExecuteSpec pageAfter(
+            LeadFilter filter, String columns, LeadCursor cursor, int limit
+    ) {
+        LeadSql sql = LeadSql.where(filter);
+
+        // Seek predicate, served by idx_leads_user_created_id
+        if (cursor != null) {
+            sql.and("(created_at, id) < (:cursorCreatedAt, :cursorId)", "cursorCreatedAt", cursor.getCreatedAt());
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = sql.bind(databaseClient.sql(
+                        "SELECT " + columns + " FROM public.leads WHERE " + sql.where()
+                                + " ORDER BY " + RECENT_FIRST
+                                + " LIMIT :limit"))
+                .bind("limit", limit);
+
+        if (cursor != null) {
+            spec = spec.bind("cursorId", cursor.getId());
+        }
+        return spec;
+    }
+
+    @Override
+    public Flux<Lead> streamFiltered(LeadFilter filter, int fetchSize) {
+        LeadSql sql = LeadSql.where(filter);
+
+        return sql.bind(databaseClient.sql(
+                        "SELECT " + COLUMNS + " FROM public.leads WHERE " + sql.where()
+                                + " ORDER BY " + RECENT_FIRST))
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, meta) -> converter.read(Lead.class, row, meta))
+                .all();
+    }
+
+    @Override
+    public Mono<Long> countFiltered(LeadFilter filter) {
+        LeadSql sql = LeadSql.where(filter);
+
+        return sql.bind(databaseClient.sql(
+                        "SELECT COUNT(*) FROM public.leads WHERE " + sql.where()))
+                .map((row, meta) -> row.get(0, Long.class))
+                .one();
+    }
+
+    @Override
+    public Mono<Long> estimateFiltered(LeadFilter filter) {
+        String search = filter.getSearchMode() == SearchMode.FULLTEXT
+                ? LeadSql.prefixQuery(filter.getSearch())
+                : filter.getSearch();
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql("""
+                        SELECT estimate_leads_count(
+                            :userId, :status, :search, :dateFrom, :dateTo, :searchMode, :includeArchived
+                        )
+                     """)
+                .bind("userId", filter.getUserId())
+                .bind("searchMode", filter.getSearchMode().label())
+                .bind("includeArchived", filter.isIncludeArchived());
+
+        // estimate_leads_count takes the status as text
+        String status = filter.getStatus() != null ? filter.getStatus().getLabel() : null;
+        spec = bindNullable(spec, "status", status, String.class);
+        spec = bindNullable(spec, "search", search, String.class);
+        spec = bindNullable(spec, "dateFrom", filter.getDateFrom(), OffsetDateTime.class);
+        spec = bindNullable(spec, "dateTo", filter.getDateTo(), OffsetDateTime.class);
+
+        return spec
+                .map((row, meta) -> row.get(0, Long.class))
+                .one();
+    }
+
+    @Override
+    public Mono<Long> insertAll(UUID userId, List<LeadRequest> rows, List<Integer> leadNumbers) {
+        String[] displayIds = new String[leadNumbers.size()];
+        for (int i = 0; i < displayIds.length; i++) {
+            displayIds[i] = LeadNumberAllocator.displayId(leadNumbers.get(i));
+        }
+
+        // One statement per batch: arrays are unnested server-side, one element per row
+        return databaseClient
+                .sql("""
+                        INSERT INTO public.leads (user_id, lead_number, display_id, name, email, status,
+                                                  company, phone, notes)
+                        SELECT :userId, r.lead_number, r.display_id, r.name, r.email,
+                               CAST(COALESCE(r.status, 'New') AS lead_status), r.company, r.phone, r.notes
+                        FROM unnest(:leadNumbers, :displayIds, :names, :emails, :statuses, :companies, :phones, :notes)
+                             AS r(lead_number, display_id, name, email, status, company, phone, notes)
+                     """)
+                .bind("userId", userId)
+                .bind("leadNumbers", leadNumbers.toArray(Integer[]::new))
+                .bind("displayIds", displayIds)
+                .bind("names", column(rows, LeadRequest::getName))
+                .bind("emails", column(rows, LeadRequest::getEmail))
+                .bind("statuses", column(rows, LeadRequest::getStatus))
+                .bind("companies", column(rows, LeadRequest::getCompany))
+                .bind("phones", column(rows, LeadRequest::getPhone))
+                .bind("notes", column(rows, LeadRequest::getNotes))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    @Override
+    public Mono<Lead> updateFields(UUID id, UUID userId, LeadChanges changes, Long expectedVersion) {
+        Map<String, Object> values = assignments(changes);
+
+        DatabaseClient.GenericExecuteSpec spec = bindAll(databaseClient.sql(
+                "UPDATE public.leads SET " + setClause(values)
+                        + " WHERE id = :id AND user_id = :userId"
+                        + (expectedVersion != null ? " AND version = :version" : "")
+                        + " RETURNING " + COLUMNS), values)
+                .bind("id", id)
+                .bind("userId", userId);
+        if (expectedVersion != null) {
+            spec = spec.bind("version", expectedVersion);
+        }
+
+        return spec
+                .map((row, meta) -> converter.read(Lead.class, row, meta))
+                .one();
+    }
+
+    @Override
+    public Mono<Long> updateByIds(UUID userId, List<UUID> ids, LeadChanges changes) {
+        Map<String, Object> values = assignments(changes);
+
+        return bindAll(databaseClient.sql(
+                        "UPDATE public.leads SET " + setClause(values)
+                                + " WHERE user_id = :userId AND id = ANY(:ids)"), values)
+                .bind("userId", userId)
+                .bind("ids", ids.toArray(new UUID[0]))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    @Override
+    public Mono<Long> deleteByIds(UUID userId, List<UUID> ids) {
+        return databaseClient
+                .sql("DELETE FROM public.leads WHERE user_id = :userId AND id = ANY(:ids)")
+                .bind("userId", userId)
+                .bind("ids", ids.toArray(new UUID[0]))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    @Override
+    public Mono<BulkChunk> updateChunk(LeadFilter filter, LeadChanges changes, UUID afterId, int limit) {
+        Map<String, Object> values = assignments(changes);
+        return chunk(filter, afterId, limit,
+                "UPDATE public.leads l SET " + setClause(values)
+                        + " FROM batch WHERE l.id = batch.id RETURNING l.id",
+                values);
+    }
+
+    @Override
+    public Mono<BulkChunk> deleteChunk(LeadFilter filter, UUID afterId, int limit) {
+        return chunk(filter, afterId, limit,
+                "DELETE FROM public.leads l USING batch WHERE l.id = batch.id RETURNING l.id",
+                Map.of());
+    }
+
+    /**
+     * Runs {@code write} against one id-ordered batch of matching rows. Walking by id
+     * keeps each statement (and its row locks) bounded and always moves forward, even
+     * when the written rows still match the filter. idx_leads_user_id_id serves the
+     * walk, so a batch is an index range scan from afterId.
+     */
+    private Mono<BulkChunk> chunk(
+            LeadFilter filter, UUID afterId, int limit, String write, Map<String, Object> values
+    ) {
+        LeadSql sql = LeadSql.where(filter);
+        if (afterId != null) {
+            sql.and("id > :afterId", "afterId", afterId);
+        }
+
+        String statement = "WITH batch AS ("
+                + " SELECT id FROM public.leads WHERE " + sql.where()
+                + " ORDER BY id LIMIT :limit"
+                + "), done AS (" + write + ")"
+                + " SELECT (SELECT COUNT(*) FROM batch) AS scanned,"
+                + " (SELECT COUNT(*) FROM done) AS affected,"
+                + " (SELECT id FROM batch ORDER BY id DESC LIMIT 1) AS last_id";
+
+        return bindAll(sql.bind(databaseClient.sql(statement)), values)
+                .bind("limit", limit)
+                .map((row, meta) -> new BulkChunk(
+                        row.get("scanned", Long.class),
+                        row.get("affected", Long.class),
+                        row.get("last_id", UUID.class)
+                ))
+                .one();
+    }
+
+    private static Map<String, Object> assignments(LeadChanges changes) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (changes.getName() != null) values.put("name", changes.getName());
+        if (changes.getEmail() != null) values.put("email", changes.getEmail());
+        if (changes.getStatus() != null) {
+            LeadStatus status = LeadStatus.fromLabel(changes.getStatus())
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid status: " + changes.getStatus()));
+            values.put("status", status);
+            // Reopening an archived lead moves it back to leads_hot in the same statement
+            if (!status.isClosed()) values.put("archived", false);
+        }
+        if (changes.getCompany() != null) values.put("company", changes.getCompany());
+        if (changes.getPhone() != null) values.put("phone", changes.getPhone());
+        if (changes.getNotes() != null) values.put("notes", changes.getNotes());
+        return values;
+    }
+
+    private static String setClause(Map<String, Object> values) {
+        List<String> assignments = new ArrayList<>();
+        for (String column : values.keySet()) {
+            assignments.add(column + " = :set_" + column);
+        }
+        assignments.add("version = version + 1");
+        // update_leads_updated_at skips rows that change partition
+        if (values.containsKey("archived")) assignments.add("updated_at = now()");
+        return String.join(", ", assignments);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindAll(
+            DatabaseClient.GenericExecuteSpec spec, Map<String, Object> values
+    ) {
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            spec = spec.bind("set_" + value.getKey(), value.getValue());
+        }
+        return spec;
+    }
+
+    private static String[] column(List<LeadRequest> rows, Function<LeadRequest, String> getter) {
+        String[] values = new String[rows.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getter.apply(rows.get(i));
+        }
+        return values;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(
+            DatabaseClient.GenericExecuteSpec spec, String name, Object value, Class<?> type
+    ) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+}
@@ -0,0 +1,63 @@
+package com.leadshub.repository;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Order of GET /api/leads?sort_field=&sort_order=. Ties are broken by id in the
+ * same direction, so every order is total and is read straight off one of the
+ * (user_id, field, id) indexes instead of being sorted.
+ */
+@Getter
+@EqualsAndHashCode
+public final class LeadSort {
+
+    /** Column names, which are also the values the frontend sends */
+    private static final Set<String> FIELDS =
+            Set.of("name", "email", "company", "status", "created_at", "updated_at");
+
+    private final String field;
+    private final boolean descending;
+
+    private LeadSort(String field, boolean descending) {
+        this.field = field;
+        this.descending = descending;
+    }
+
+    /**
+     * @param field one of name, email, company, status, created_at, updated_at
+     * @param order asc or desc
+     * @throws IllegalArgumentException for anything else
+     */
+    public static LeadSort of(String field, String order) {
+        String column = field.trim().toLowerCase();
+        if (!FIELDS.contains(column)) {
+            throw new IllegalArgumentException("Unknown sort field: " + field);
+        }
+
+        return switch (order.trim().toLowerCase()) {
+            case "asc" -> new LeadSort(column, false);
+            case "desc" -> new LeadSort(column, true);
+            default -> throw new IllegalArgumentException("Unknown sort order: " + order);
+        };
+    }
+
+    /**
+     * The default listing order, which keyset paging relies on.
+     */
+    public boolean isRecentFirst() {
+        return field.equals("created_at") && descending;
+    }
+
+    String orderBy() {
+        String direction = descending ? "DESC" : "ASC";
+        return field + " " + direction + ", id " + direction;
+    }
+
+    @Override
+    public String toString() {
+        return field + (descending ? " desc" : " asc");
+    }
+}
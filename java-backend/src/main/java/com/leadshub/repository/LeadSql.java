@@ -0,0 +1,89 @@
+package com.leadshub.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WHERE clause and bind values for a {@link LeadFilter}.
+ * Only clauses for non-null filter fields are emitted, so each shape gets its own plan.
+ */
+class LeadSql {
+
+    private final StringBuilder where = new StringBuilder("user_id = :userId");
+    private final Map<String, Object> binds = new LinkedHashMap<>();
+
+    private LeadSql() {
+    }
+
+    static LeadSql where(LeadFilter filter) {
+        LeadSql sql = new LeadSql();
+        sql.binds.put("userId", filter.getUserId());
+
+        // Prunes the scan to leads_hot
+        if (!filter.isIncludeArchived()) {
+            sql.where.append(" AND NOT archived");
+        }
+
+        if (filter.getStatus() != null) {
+            sql.and("status = :status", "status", filter.getStatus());
+        }
+
+        if (filter.getSearch() != null) {
+            if (filter.getSearchMode() == SearchMode.FULLTEXT) {
+                String tsquery = prefixQuery(filter.getSearch());
+                if (tsquery != null) {
+                    sql.and("search_vector @@ to_tsquery('simple', :tsquery)", "tsquery", tsquery);
+                }
+            } else {
+                sql.and("(name ILIKE '%' || :search || '%' OR email ILIKE '%' || :search || '%')",
+                        "search", filter.getSearch());
+            }
+        }
+
+        if (filter.getDateFrom() != null) {
+            sql.and("created_at >= :dateFrom", "dateFrom", filter.getDateFrom());
+        }
+        if (filter.getDateTo() != null) {
+            sql.and("created_at <= :dateTo", "dateTo", filter.getDateTo());
+        }
+
+        return sql;
+    }
+
+    LeadSql and(String clause, String name, Object value) {
+        where.append(" AND ").append(clause);
+        binds.put(name, value);
+        return this;
+    }
+
+    String where() {
+        return where.toString();
+    }
+
+    GenericExecuteSpec bind(GenericExecuteSpec spec) {
+        for (Map.Entry<String, Object> bind : binds.entrySet()) {
+            spec = spec.bind(bind.getKey(), bind.getValue());
+        }
+        return spec;
+    }
+
+    /**
+     * Turns free text into an AND of prefix terms ("jo smi" → "jo:* & smi:*").
+     * Only letters and digits survive, so the result is always valid tsquery syntax.
+     *
+     * @return null when the input has no searchable terms
+     */
+    static String prefixQuery(String search) {
+        if (search == null) return null;
+
+        List<String> terms = new ArrayList<>();
+        for (String token : search.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) terms.add(token + ":*");
+        }
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+}
@@ -0,0 +1,24 @@
+package com.leadshub.repository;
+
+/**
+ * Strategy behind the search filter of GET /api/leads.
+ */
+public enum SearchMode {
+
+    /** Substring match on name and email, served by the trigram indexes */
+    ILIKE,
+
+    /** Prefix full-text match on name, email, company and notes, ranked by relevance */
+    FULLTEXT;
+
+    /**
+     * @throws IllegalArgumentException for unknown modes
+     */
+    public static SearchMode from(String value) {
+        return SearchMode.valueOf(value.trim().toUpperCase());
+    }
+
+    public String label() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,17 @@
+package com.leadshub.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One row of lead_status_counts.
+ */
+@Getter
+@AllArgsConstructor
+public class StatusCount {
+
+    /** lead_status label, e.g. "Closed-Won" */
+    private final String status;
+
+    private final long count;
+}
@@ -1,12 +1,43 @@
 package com.leadshub.repository;
 
 import com.leadshub.model.User;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
 public interface UserRepository extends ReactiveCrudRepository<User, UUID> {
 
-    Mono<User> findByEmailIgnoreCase(String email);
+    /**
+     * Case-insensitive lookup served by users_email_lower_key.
+     * Pass the address already lower-cased.
+     */
+    @Query("""
+        SELECT id, email, password_hash, created_at, updated_at
+        FROM public.users
+        WHERE LOWER(email) = :email
+    """)
+    Mono<User> findByEmail(String email);
+
+    /**
+     * Inserts the user in one round trip; completes empty when the address is
+     * already taken (in any letter case), including under concurrent sign-ups.
+     */
+    @Query("""
+        INSERT INTO public.users (id, email, password_hash)
+        VALUES (:id, :email, :passwordHash)
+        ON CONFLICT DO NOTHING
+        RETURNING id, email, password_hash, created_at, updated_at
+    """)
+    Mono<User> insertIfAbsent(UUID id, String email, String passwordHash);
+
+    @Query("SELECT id FROM public.users ORDER BY id")
+    Flux<UUID> findAllIds();
+
+    @Modifying
+    @Query("UPDATE public.users SET password_hash = :passwordHash WHERE id = :id")
+    Mono<Integer> updatePasswordHash(UUID id, String passwordHash);
 }
@@ -0,0 +1,192 @@
+package com.leadshub.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for /api/**, ahead of authentication so refused requests cost
+ * next to nothing: token buckets per client IP and per user, a tighter per-IP
+ * bucket for login and register, and a cap on each user's in-flight requests.
+ * Refusals are 429 with Retry-After, counted as http.admission.rejected{reason}.
+ *
+ * <p>The user is read from the bearer token, verified here once per request and
+ * shared with authentication through the exchange; requests without a valid token
+ * are limited by IP only and then rejected by authentication as before.
+ */
+@Component
+@Order(-200)
+public class AdmissionControlFilter implements WebFilter {
+
+    private static final String CHANGE_STREAM = "/api/leads/changes";
+
+    private final JwtUtil jwtUtil;
+    private final boolean enabled;
+
+    private final double ipRate;
+    private final int ipBurst;
+    private final double userRate;
+    private final int userBurst;
+    private final double authRate;
+    private final int authBurst;
+    private final int maxInFlight;
+
+    // Idle clients age out, so the maps stay bounded however many IPs show up
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> userBuckets;
+    private final Cache<String, TokenBucket> authBuckets;
+    private final Cache<String, AtomicInteger> inFlight;
+
+    private final Map<String, Counter> rejected;
+
+    public AdmissionControlFilter(
+            JwtUtil jwtUtil,
+            MeterRegistry meterRegistry,
+            @Value("${ratelimit.enabled:true}") boolean enabled,
+            @Value("${ratelimit.ip.per-second:50}") double ipRate,
+            @Value("${ratelimit.ip.burst:100}") int ipBurst,
+            @Value("${ratelimit.user.per-second:20}") double userRate,
+            @Value("${ratelimit.user.burst:40}") int userBurst,
+            @Value("${ratelimit.auth.per-second:0.2}") double authRate,
+            @Value("${ratelimit.auth.burst:5}") int authBurst,
+            @Value("${ratelimit.user.max-in-flight:16}") int maxInFlight,
+            @Value("${ratelimit.max-clients:100000}") long maxClients
+    ) {
+        // Buckets are created on first use; build one of each now so bad settings fail startup
+        requireBucket("ratelimit.ip", ipRate, ipBurst);
+        requireBucket("ratelimit.user", userRate, userBurst);
+        requireBucket("ratelimit.auth", authRate, authBurst);
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("ratelimit.user.max-in-flight must be at least 1");
+        }
+        if (maxClients < 1) {
+            throw new IllegalArgumentException("ratelimit.max-clients must be at least 1");
+        }
+
+        this.jwtUtil = jwtUtil;
+        this.enabled = enabled;
+        this.ipRate = ipRate;
+        this.ipBurst = ipBurst;
+        this.userRate = userRate;
+        this.userBurst = userBurst;
+        this.authRate = authRate;
+        this.authBurst = authBurst;
+        this.maxInFlight = maxInFlight;
+
+        this.ipBuckets = clients(maxClients);
+        this.userBuckets = clients(maxClients);
+        this.authBuckets = clients(maxClients);
+        this.inFlight = clients(maxClients);
+
+        this.rejected = Map.of(
+                "ip_rate", rejectedCounter(meterRegistry, "ip_rate"),
+                "user_rate", rejectedCounter(meterRegistry, "user_rate"),
+                "auth_rate", rejectedCounter(meterRegistry, "auth_rate"),
+                "in_flight", rejectedCounter(meterRegistry, "in_flight")
+        );
+    }
+
+    private static void requireBucket(String prefix, double rate, int burst) {
+        try {
+            new TokenBucket(rate, burst);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(prefix + ".per-second and " + prefix + ".burst: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (!enabled || !path.startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+
+        long now = System.nanoTime();
+        String ip = clientIp(request);
+
+        long wait = ipBuckets.get(ip, key -> new TokenBucket(ipRate, ipBurst)).tryTake(now);
+        if (wait > 0) {
+            return reject(exchange, "ip_rate", wait);
+        }
+
+        if (path.startsWith("/api/auth/") && request.getMethod() == HttpMethod.POST) {
+            wait = authBuckets.get(ip, key -> new TokenBucket(authRate, authBurst)).tryTake(now);
+            return wait > 0 ? reject(exchange, "auth_rate", wait) : chain.filter(exchange);
+        }
+
+        String userId = jwtUtil.verify(exchange)
+                .map(VerifiedToken::getUserId)
+                .orElse(null);
+        if (userId == null) {
+            return chain.filter(exchange);
+        }
+
+        wait = userBuckets.get(userId, key -> new TokenBucket(userRate, userBurst)).tryTake(now);
+        if (wait > 0) {
+            return reject(exchange, "user_rate", wait);
+        }
+
+        // Change streams stay open for hours; they would hold a slot each
+        if (path.equals(CHANGE_STREAM)) {
+            return chain.filter(exchange);
+        }
+
+        AtomicInteger active = inFlight.get(userId, key -> new AtomicInteger());
+        if (active.incrementAndGet() > maxInFlight) {
+            active.decrementAndGet();
+            return reject(exchange, "in_flight", TimeUnit.SECONDS.toNanos(1));
+        }
+        return chain.filter(exchange)
+                .doFinally(signal -> active.decrementAndGet());
+    }
+
+    // Behind a proxy, set server.forward-headers-strategy so this is the real client
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String reason, long waitNanos) {
+        rejected.get(reason).increment();
+
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return exchange.getResponse().setComplete();
+    }
+
+    private static <V> Cache<String, V> clients(long maxClients) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("http.admission.rejected")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
 import java.util.Collections;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter implements WebFilter {
@@ -29,27 +30,20 @@ public class JwtAuthenticationFilter implements WebFilter {
             return chain.filter(exchange);
         }
 
-        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        // Usually already verified by admission control or the security chain
+        Optional<VerifiedToken> verified = jwtUtil.verify(exchange);
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            if (path.startsWith("/api/leads")) {
+        if (verified.isEmpty()) {
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (path.startsWith("/api/leads") || (authHeader != null && authHeader.startsWith("Bearer "))) {
                 exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
                 return exchange.getResponse().setComplete();
             }
             return chain.filter(exchange);
         }
 
-        String token = authHeader.substring(7);
-
-        if (!jwtUtil.validateToken(token)) {
-            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-            return exchange.getResponse().setComplete();
-        }
-
-        String userId = jwtUtil.getUserIdFromToken(token);
-        
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                userId, null, Collections.emptyList()
+                verified.get().getUserId(), null, Collections.emptyList()
         );
 
         return chain.filter(exchange)
@@ -1,26 +1,108 @@
 package com.leadshub.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    // Exchange attribute holding the outcome of verify(exchange)
+    private static final String VERIFIED_ATTRIBUTE = JwtUtil.class.getName() + ".verified";
 
-    @Value("${jwt.expiration}")
-    private long expiration;
+    // Audience of stream tokens, which are accepted only by GET /api/leads/changes
+    private static final String STREAM_AUDIENCE = "lead-changes";
+    private static final String STREAM_PATH = "/api/leads/changes";
+    private static final String STREAM_TOKEN_PARAM = "stream_token";
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private final long expiration;
+
+    // Built once: deriving the key and the parser per call showed up on every request
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final JwtParser streamParser;
+
+    /**
+     * Tokens whose signature already checked out, removed when the token expires.
+     */
+    private final Cache<String, VerifiedToken> verified;
+    private final boolean cacheEnabled;
+
+    private final Duration streamTokenTtl;
+
+    /**
+     * Ids of stream tokens already presented, kept until the token would have expired.
+     * Per instance: on several instances a token can be replayed once per instance
+     * within its TTL.
+     */
+    private final Cache<String, Boolean> usedStreamTokens;
+
+    public JwtUtil(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration}") long expiration,
+            @Value("${jwt.cache-size:10000}") long cacheSize,
+            @Value("${changes.stream-token-ttl:PT30S}") Duration streamTokenTtl,
+            MeterRegistry meterRegistry
+    ) {
+        this.expiration = expiration;
+        this.streamTokenTtl = streamTokenTtl;
+        // maximumSize(0) still admits entries until eviction catches up
+        this.cacheEnabled = cacheSize > 0;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.streamParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .requireAudience(STREAM_AUDIENCE)
+                .build();
+
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken value, long currentTime) {
+                        long millis = value.getExpiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return Math.max(millis, 0) * 1_000_000;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.size, cache.evictions with cache=jwt.verified
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
+
+        this.usedStreamTokens = Caffeine.newBuilder()
+                .expireAfterWrite(streamTokenTtl)
+                .build();
     }
 
     // =====================
@@ -35,36 +117,127 @@ public class JwtUtil {
                 .claim("email", email)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    // =====================
-    // TOKEN PARSING
-    // =====================
-    public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * A token for the change stream alone, for clients that cannot set an Authorization
+     * header (a browser EventSource passes it as ?stream_token=). Valid for
+     * changes.stream-token-ttl and accepted once.
+     */
+    public String generateStreamToken(String userId) {
+        Date now = new Date();
 
-        return claims.getSubject();
+        return Jwts.builder()
+                .subject(userId)
+                .audience().add(STREAM_AUDIENCE).and()
+                .id(UUID.randomUUID().toString())
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + streamTokenTtl.toMillis()))
+                .signWith(signingKey)
+                .compact();
+    }
+
+    public long getStreamTokenTtlMillis() {
+        return streamTokenTtl.toMillis();
     }
 
     // =====================
-    // TOKEN VALIDATION
+    // TOKEN VERIFICATION
     // =====================
-    public boolean validateToken(String token) {
+
+    /**
+     * Checks signature and expiry once and returns the claims; repeat calls with the
+     * same token are served from the cache until it expires.
+     *
+     * @return empty if the token is malformed, forged, expired or a stream token
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        VerifiedToken cached = verified.getIfPresent(token);
+        if (cached != null) {
+            return cached.getExpiresAt().isAfter(Instant.now()) ? Optional.of(cached) : Optional.empty();
+        }
+
+        Claims claims;
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            claims = parser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
+        // A stream token travels in URLs, so it must not work as a bearer token
+        if (claims.getAudience() != null && claims.getAudience().contains(STREAM_AUDIENCE)) {
+            return Optional.empty();
+        }
+
+        Date expiresAt = claims.getExpiration();
+        VerifiedToken parsed = new VerifiedToken(
+                claims.getSubject(),
+                claims.get("email", String.class),
+                expiresAt != null ? expiresAt.toInstant() : Instant.MAX
+        );
+
+        // Only tokens with an expiry are cached, so an entry can never outlive its token
+        if (expiresAt != null && cacheEnabled) {
+            verified.put(token, parsed);
+        }
+        return Optional.of(parsed);
+    }
+
+    /**
+     * The request's bearer token, or for the change stream without one its stream token,
+     * verified on the first call for the exchange. Admission control, the security chain
+     * and JwtAuthenticationFilter all ask, and share the result, so a stream token is
+     * used up once per request.
+     *
+     * @return empty if there is no token or it is malformed, forged, expired or used
+     */
+    public Optional<VerifiedToken> verify(ServerWebExchange exchange) {
+        Optional<VerifiedToken> known = exchange.getAttribute(VERIFIED_ATTRIBUTE);
+        if (known != null) {
+            return known;
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        String streamToken = request.getQueryParams().getFirst(STREAM_TOKEN_PARAM);
+
+        Optional<VerifiedToken> result;
+        if (header != null && header.startsWith("Bearer ")) {
+            result = verify(header.substring(7));
+        } else if (streamToken != null
+                && request.getMethod() == HttpMethod.GET
+                && STREAM_PATH.equals(request.getPath().value())) {
+            result = verifyStreamToken(streamToken);
+        } else {
+            result = Optional.empty();
+        }
+        exchange.getAttributes().put(VERIFIED_ATTRIBUTE, result);
+        return result;
+    }
+
+    private Optional<VerifiedToken> verifyStreamToken(String token) {
+        Claims claims;
+        try {
+            claims = streamParser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (claims.getId() == null || claims.getExpiration() == null
+                || usedStreamTokens.asMap().putIfAbsent(claims.getId(), Boolean.TRUE) != null) {
+            return Optional.empty();
+        }
+        return Optional.of(new VerifiedToken(claims.getSubject(), null, claims.getExpiration().toInstant()));
+    }
+
+    public String getUserIdFromToken(String token) {
+        return verify(token)
+                .map(VerifiedToken::getUserId)
+                .orElseThrow(() -> new JwtException("Invalid token"));
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
 
     // =====================
@@ -0,0 +1,123 @@
+package com.leadshub.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt off the Netty event loop on a small fixed pool.
+ * <p>
+ * Each hash costs tens of milliseconds of CPU by design. Running them on the event
+ * loop stalls every other request sharing that loop, so they queue here instead;
+ * once the queue is full new sign-ins fail fast with 503.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(
+            PasswordEncoder passwordEncoder,
+            @Value("${security.bcrypt.strength:10}") int strength,
+            @Value("${security.hashing.threads:4}") int threads,
+            @Value("${security.hashing.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory threadFactory = task -> {
+            Thread thread = new Thread(task, "password-hash-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.encodeTimer = Timer.builder("auth.hashing.duration")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchTimer = Timer.builder("auth.hashing.duration")
+                .tag("operation", "match")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .description("Hash requests refused because the queue was full")
+                .register(meterRegistry);
+
+        Gauge.builder("auth.hashing.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public Mono<String> encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public Mono<Boolean> matches(String rawPassword, String hash) {
+        return submit(matchTimer, () -> passwordEncoder.matches(rawPassword, hash));
+    }
+
+    /**
+     * True when the hash was produced with a different cost than the configured one.
+     */
+    public boolean needsRehash(String hash) {
+        // $2a$10$... → cost is the two digits after the version
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$') return false;
+        try {
+            return Integer.parseInt(hash.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private <T> Mono<T> submit(Timer timer, Supplier<T> task) {
+        return Mono.defer(() -> {
+            try {
+                return Mono.fromFuture(
+                        CompletableFuture.supplyAsync(() -> timer.record(task), executor)
+                );
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                return Mono.error(new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-in attempts, try again shortly"
+                ));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
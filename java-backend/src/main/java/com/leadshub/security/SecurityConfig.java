@@ -2,7 +2,6 @@ package com.leadshub.security;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
@@ -55,6 +54,8 @@ public class SecurityConfig {
                 )
                 .authorizeExchange(exchange -> exchange
                         .pathMatchers("/api/auth/**").permitAll()
+                        // Scraped without a JWT; keep /actuator off the public ingress
+                        .pathMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .anyExchange().authenticated()
                 )
                 // ✅ CORRECT WebFlux registration
@@ -69,30 +70,12 @@ public class SecurityConfig {
      * Converts Authorization header → Authentication
      */
     private Mono<Authentication> convert(ServerWebExchange exchange) {
-
-        String header = exchange.getRequest()
-                .getHeaders()
-                .getFirst(HttpHeaders.AUTHORIZATION);
-
-        if (header == null || !header.startsWith("Bearer ")) {
-            return Mono.empty();
-        }
-
-        String token = header.substring(7);
-
-        if (!jwtUtil.validateToken(token)) {
-            return Mono.empty();
-        }
-
-        String userId = jwtUtil.getUserIdFromToken(token);
-
-        return Mono.just(
-                new UsernamePasswordAuthenticationToken(
-                        userId,
+        return Mono.justOrEmpty(jwtUtil.verify(exchange))
+                .map(verified -> new UsernamePasswordAuthenticationToken(
+                        verified.getUserId(),
                         null,
                         List.of(new SimpleGrantedAuthority("ROLE_USER"))
-                )
-        );
+                ));
     }
 
     @Bean
@@ -0,0 +1,51 @@
+package com.leadshub.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (GCRA):
+ * each admitted request pushes it forward by one token's worth of time, and a
+ * request is refused while it is more than a full burst ahead of now.
+ */
+class TokenBucket {
+
+    // One token per nanosecond is the finest rate the arrival time can express
+    static final double MAX_RATE = 1_000_000_000d;
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(double tokensPerSecond, int burst) {
+        // A rate of 0 or NaN would admit everything, as would an overflowed burst
+        if (!(tokensPerSecond > 0 && tokensPerSecond <= MAX_RATE)) {
+            throw new IllegalArgumentException("rate must be above 0 and at most " + (long) MAX_RATE + " per second, was " + tokensPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1, was " + burst);
+        }
+        // Half the long range (146 years) leaves room to add the window to nanoTime()
+        if (1_000_000_000d / tokensPerSecond * burst > Long.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("rate " + tokensPerSecond + " with burst " + burst + " spans too long a window");
+        }
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = nanosPerToken * (burst - 1L);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise nanoseconds until one is available
+     */
+    long tryTake(long now) {
+        while (true) {
+            long current = arrival.get();
+            long start = Math.max(current, now);
+            long ahead = start - now;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (arrival.compareAndSet(current, start + nanosPerToken)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.leadshub.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * The claims the API needs from a token whose signature has already been checked.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final String userId;
+    private final String email;
+    private final Instant expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.leadshub.service;
+
+/**
+ * How GET /api/leads computes the totals in the pagination block.
+ */
+public enum CountMode {
+
+    /** COUNT(*) over the filter, run concurrently with the page query */
+    EXACT,
+
+    /** Planner row estimate for the same filter; no scan */
+    ESTIMATED,
+
+    /** No count at all, only a has_next flag from fetching one extra row */
+    NONE;
+
+    /**
+     * @throws IllegalArgumentException for unknown modes
+     */
+    public static CountMode from(String value) {
+        return CountMode.valueOf(value.trim().toUpperCase());
+    }
+
+    public String label() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,89 @@
+package com.leadshub.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 reader fed one line at a time.
+ * A quoted field may span lines; {@link #feed} returns null until its record is complete.
+ * The fields and quote state of an unfinished record carry over between calls, so
+ * every line is scanned once.
+ */
+class CsvRecordReader {
+
+    private final int maxRecordLength;
+
+    // The record being read
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private boolean quoted;
+    private int length;
+
+    CsvRecordReader(int maxRecordLength) {
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * @param line one line without its trailing newline
+     * @return the completed record, or null if a quoted field continues on the next line
+     * @throws IllegalArgumentException if the record grows past the maximum length, e.g.
+     *         after a stray quote; the record is dropped and reading resumes with the next line
+     */
+    List<String> feed(String line) {
+        if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+            line = line.substring(0, line.length() - 1);
+        }
+
+        // Still inside a quoted field from the previous line
+        if (quoted) {
+            field.append('\n');
+            length++;
+        }
+
+        length += line.length();
+        if (length > maxRecordLength) {
+            reset();
+            throw new IllegalArgumentException("Record longer than " + maxRecordLength + " characters");
+        }
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) return null;
+
+        fields.add(field.toString());
+        List<String> record = new ArrayList<>(fields);
+        reset();
+        return record;
+    }
+
+    boolean hasPending() {
+        return quoted;
+    }
+
+    private void reset() {
+        fields.clear();
+        field.setLength(0);
+        quoted = false;
+        length = 0;
+    }
+}
@@ -0,0 +1,79 @@
+package com.leadshub.service;
+
+import com.leadshub.repository.LeadRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * Keeps leads_hot down to the working set: closed leads untouched for
+ * archive.after move to leads_archive, and archived leads reopened outside the
+ * app (the API un-archives on reopen) move back. Each batch is its own statement and skips locked rows, so lock
+ * time stays bounded and leads being edited are left for the next run.
+ */
+@Slf4j
+@Service
+public class LeadArchiver {
+
+    private final LeadRepository leadRepository;
+    private final boolean enabled;
+    private final Duration archiveAfter;
+    private final int batchSize;
+
+    public LeadArchiver(
+            LeadRepository leadRepository,
+            @Value("${archive.enabled:true}") boolean enabled,
+            @Value("${archive.after:P90D}") Duration archiveAfter,
+            @Value("${archive.batch-size:1000}") int batchSize
+    ) {
+        this.leadRepository = leadRepository;
+        this.enabled = enabled;
+        this.archiveAfter = archiveAfter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(
+            initialDelayString = "${archive.interval:PT10M}",
+            fixedDelayString = "${archive.interval:PT10M}"
+    )
+    public Mono<Void> run() {
+        if (!enabled) {
+            return Mono.empty();
+        }
+
+        // The returned Mono is resubscribed on every tick, so the cutoff is taken per run
+        return Mono.defer(() -> {
+            OffsetDateTime before = OffsetDateTime.now().minus(archiveAfter);
+
+            return drain(limit -> leadRepository.archiveClosed(before, limit), 0)
+                    .flatMap(archived -> drain(leadRepository::restoreReopened, 0)
+                            .doOnNext(restored -> {
+                                if (archived > 0 || restored > 0) {
+                                    log.info("Archived {} closed leads, restored {} reopened", archived, restored);
+                                }
+                            }));
+        }).then();
+    }
+
+    /**
+     * Runs batches until one comes back short.
+     *
+     * @return leads moved
+     */
+    private Mono<Long> drain(IntFunction<Flux<UUID>> batch, long total) {
+        return batch.apply(batchSize)
+                .count()
+                .flatMap(count -> {
+                    long moved = total + count;
+                    return count < batchSize ? Mono.just(moved) : drain(batch, moved);
+                });
+    }
+}
@@ -0,0 +1,127 @@
+package com.leadshub.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leadshub.dto.LeadChangeEvent;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Fans lead_changes notifications out to SSE subscribers.
+ *
+ * <p>All subscribers share one LISTEN connection, taken from the pool while anyone
+ * is subscribed. If that connection drops it is re-established with backoff, and a
+ * resync event tells clients to refetch what they may have missed.
+ */
+@Slf4j
+@Component
+public class LeadChangeStream {
+
+    private static final String CHANNEL = "lead_changes";
+
+    private final ObjectMapper objectMapper;
+    private final Duration heartbeat;
+    private final int bufferSize;
+    private final Flux<LeadChangeEvent> events;
+
+    public LeadChangeStream(
+            ConnectionFactory connectionFactory,
+            ObjectMapper objectMapper,
+            @Value("${changes.heartbeat:PT15S}") Duration heartbeat,
+            @Value("${changes.buffer-size:256}") int bufferSize
+    ) {
+        this.objectMapper = objectMapper;
+        this.heartbeat = heartbeat;
+        this.bufferSize = bufferSize;
+
+        this.events = Flux.usingWhen(
+                        connectionFactory.create(),
+                        this::listen,
+                        LeadChangeStream::release
+                )
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("LISTEN {} lost, reconnecting", CHANNEL, signal.failure())))
+                // Keep the connection through short gaps, e.g. a page reload
+                .publish()
+                .refCount(1, Duration.ofSeconds(30));
+    }
+
+    /**
+     * The user's lead changes, with a comment line every {@code changes.heartbeat}
+     * to keep proxies from closing an idle stream. Completes, so the client
+     * reconnects and resyncs, if it falls {@code changes.buffer-size} events behind.
+     */
+    public Flux<ServerSentEvent<LeadChangeEvent>> subscribe(UUID userId) {
+        Flux<ServerSentEvent<LeadChangeEvent>> heartbeats = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<LeadChangeEvent>builder().comment("heartbeat").build());
+
+        return events
+                .filter(event -> event.getUserId() == null || event.getUserId().equals(userId))
+                .map(event -> ServerSentEvent.builder(event).event(event.getType()).build())
+                .mergeWith(heartbeats)
+                .onBackpressureBuffer(bufferSize)
+                .onErrorResume(Exceptions::isOverflow, e -> {
+                    log.debug("Dropping slow change stream subscriber for user {}", userId);
+                    return Flux.empty();
+                });
+    }
+
+    private Flux<LeadChangeEvent> listen(Connection connection) {
+        PostgresqlConnection postgres = unwrap(connection);
+
+        Mono<LeadChangeEvent> listening = postgres.createStatement("LISTEN " + CHANNEL)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .then(Mono.fromCallable(LeadChangeEvent::resync));
+
+        // Subscribed before LISTEN runs, so nothing sent after it is missed
+        return postgres.getNotifications()
+                .handle(this::parse)
+                .mergeWith(listening)
+                .concatWith(Mono.error(() -> new IllegalStateException("LISTEN connection closed")));
+    }
+
+    private void parse(Notification notification, SynchronousSink<LeadChangeEvent> sink) {
+        try {
+            sink.next(objectMapper.readValue(notification.getParameter(), LeadChangeEvent.class));
+        } catch (Exception e) {
+            log.warn("Ignoring malformed {} payload: {}", CHANNEL, notification.getParameter(), e);
+        }
+    }
+
+    // Pooled connection: stop listening before handing it back
+    private static Mono<Void> release(Connection connection) {
+        return unwrap(connection).createStatement("UNLISTEN *")
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .onErrorResume(e -> Mono.empty())
+                .then(Mono.from(connection.close()));
+    }
+
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object target = connection;
+        while (!(target instanceof PostgresqlConnection) && target instanceof Wrapped<?> wrapped) {
+            target = wrapped.unwrap();
+        }
+        if (target instanceof PostgresqlConnection postgres) {
+            return postgres;
+        }
+        throw new IllegalStateException("LISTEN needs a PostgreSQL connection, got " + connection.getClass().getName());
+    }
+}
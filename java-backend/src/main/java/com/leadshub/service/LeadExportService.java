@@ -0,0 +1,83 @@
+package com.leadshub.service;
+
+import com.leadshub.model.Lead;
+import com.leadshub.repository.LeadFilter;
+import com.leadshub.repository.LeadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Full export of the leads matching a filter.
+ * <p>
+ * Rows are pulled from a server-side cursor {@code export.fetch-size} rows at a time
+ * inside one read-only transaction, and only as fast as the client reads the response.
+ * Cancelling the response (client disconnect) cancels the query.
+ */
+@Service
+public class LeadExportService {
+
+    static final String CSV_HEADER =
+            "display_id,name,email,status,company,phone,notes,created_at,updated_at\n";
+
+    private final LeadRepository leadRepository;
+    private final TransactionalOperator readOnly;
+    private final int fetchSize;
+
+    public LeadExportService(
+            LeadRepository leadRepository,
+            ReactiveTransactionManager transactionManager,
+            @Value("${export.fetch-size:500}") int fetchSize
+    ) {
+        this.leadRepository = leadRepository;
+        this.fetchSize = fetchSize;
+
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        this.readOnly = TransactionalOperator.create(transactionManager, definition);
+    }
+
+    public Flux<Lead> exportLeads(LeadFilter filter) {
+        return leadRepository
+                .streamFiltered(filter, fetchSize)
+                .as(readOnly::transactional);
+    }
+
+    public Flux<String> exportCsv(LeadFilter filter) {
+        return Flux.just(CSV_HEADER)
+                .concatWith(exportLeads(filter).map(LeadExportService::toCsvLine));
+    }
+
+    static String toCsvLine(Lead lead) {
+        StringBuilder line = new StringBuilder(128);
+        appendField(line, lead.getDisplayId()).append(',');
+        appendField(line, lead.getName()).append(',');
+        appendField(line, lead.getEmail()).append(',');
+        appendField(line, lead.getStatus() != null ? lead.getStatus().getLabel() : null).append(',');
+        appendField(line, lead.getCompany()).append(',');
+        appendField(line, lead.getPhone()).append(',');
+        appendField(line, lead.getNotes()).append(',');
+        appendField(line, timestamp(lead.getCreatedAt())).append(',');
+        appendField(line, timestamp(lead.getUpdatedAt()));
+        return line.append('\n').toString();
+    }
+
+    private static StringBuilder appendField(StringBuilder line, String value) {
+        if (value == null) return line;
+
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) return line.append(value);
+
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static String timestamp(OffsetDateTime value) {
+        return value != null ? value.toString() : null;
+    }
+}
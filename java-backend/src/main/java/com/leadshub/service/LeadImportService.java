@@ -0,0 +1,240 @@
+package com.leadshub.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leadshub.dto.ImportBatchResult;
+import com.leadshub.dto.LeadRequest;
+import com.leadshub.model.LeadStatus;
+import com.leadshub.repository.LeadNumberAllocator;
+import com.leadshub.repository.LeadRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk lead import from CSV or NDJSON.
+ * <p>
+ * The body is parsed line by line and written in multi-row INSERTs of
+ * {@code import.batch-size} rows. Each batch is requested from upstream only after the
+ * previous one is written, so memory stays at roughly one batch regardless of file size.
+ */
+@Slf4j
+@Service
+public class LeadImportService {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    // Spreadsheet exports often start with one
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private final LeadRepository leadRepository;
+    private final LeadNumberAllocator leadNumbers;
+    private final LeadSuggestIndex suggestIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxRecordLength;
+    private final StringDecoder lineDecoder;
+
+    public LeadImportService(
+            LeadRepository leadRepository,
+            LeadNumberAllocator leadNumbers,
+            LeadSuggestIndex suggestIndex,
+            Validator validator,
+            ObjectMapper objectMapper,
+            @Value("${import.batch-size:1000}") int batchSize,
+            @Value("${import.max-record-length:65536}") int maxRecordLength
+    ) {
+        this.leadRepository = leadRepository;
+        this.leadNumbers = leadNumbers;
+        this.suggestIndex = suggestIndex;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxRecordLength = maxRecordLength;
+
+        // At most three UTF-8 bytes per character, plus a trailing \r; the reader enforces
+        // the exact length, so a line only trips this when it is certainly too long
+        this.lineDecoder = StringDecoder.allMimeTypes(List.of("\n"), true);
+        this.lineDecoder.setMaxInMemorySize((int) Math.min(Integer.MAX_VALUE, 3L * maxRecordLength + 1));
+    }
+
+    public Flux<ImportBatchResult> importLeads(UUID userId, Flux<DataBuffer> body, MediaType contentType) {
+        Flux<String> lines = lineDecoder.decode(body, ResolvableType.forClass(String.class), null, null)
+                .onErrorMap(DataBufferLimitException.class, e -> new ResponseStatusException(
+                        HttpStatus.PAYLOAD_TOO_LARGE, "Line longer than " + maxRecordLength + " characters"
+                ))
+                .switchOnFirst((first, all) -> first.hasValue() && first.get().startsWith(BYTE_ORDER_MARK)
+                        ? all.skip(1).startWith(first.get().substring(1))
+                        : all);
+
+        Flux<ImportRow> rows = TEXT_CSV.isCompatibleWith(contentType)
+                ? csvRows(lines)
+                : ndjsonRows(lines);
+
+        return rows
+                .buffer(batchSize)
+                .index()
+                .concatMap(batch -> writeBatch(userId, batch.getT1() + 1, batch.getT2()), 1)
+                // Loaded typeahead indexes rebuild from the table on next use
+                .doFinally(signal -> suggestIndex.invalidate(userId));
+    }
+
+    private Flux<ImportRow> csvRows(Flux<String> lines) {
+        return Flux.defer(() -> {
+            CsvRecordReader reader = new CsvRecordReader(maxRecordLength);
+            Map<String, Integer> header = new HashMap<>();
+            long[] rowNumber = {0};
+
+            return lines.<ImportRow>handle((line, sink) -> {
+                List<String> record;
+                try {
+                    record = reader.feed(line);
+                } catch (IllegalArgumentException e) {
+                    if (header.isEmpty()) {
+                        sink.error(new ResponseStatusException(
+                                HttpStatus.BAD_REQUEST, "CSV header: " + e.getMessage()
+                        ));
+                    } else {
+                        sink.next(ImportRow.invalid(++rowNumber[0], e.getMessage()));
+                    }
+                    return;
+                }
+                if (record == null) return;
+
+                if (header.isEmpty()) {
+                    for (int i = 0; i < record.size(); i++) {
+                        header.put(record.get(i).trim().toLowerCase(Locale.ROOT), i);
+                    }
+                    if (!header.containsKey("name") || !header.containsKey("email")) {
+                        sink.error(new ResponseStatusException(
+                                HttpStatus.BAD_REQUEST, "CSV header must include name and email columns"
+                        ));
+                    }
+                    return;
+                }
+
+                if (record.size() == 1 && record.get(0).isBlank()) return;
+
+                LeadRequest request = new LeadRequest();
+                request.setName(column(record, header, "name"));
+                request.setEmail(column(record, header, "email"));
+                request.setCompany(column(record, header, "company"));
+                request.setPhone(column(record, header, "phone"));
+                request.setNotes(column(record, header, "notes"));
+                String status = column(record, header, "status");
+                if (status != null) request.setStatus(status);
+
+                sink.next(validate(++rowNumber[0], request));
+            }).concatWith(Mono.defer(() -> reader.hasPending()
+                    ? Mono.just(ImportRow.invalid(rowNumber[0] + 1, "Unterminated quoted field"))
+                    : Mono.empty()));
+        });
+    }
+
+    private Flux<ImportRow> ndjsonRows(Flux<String> lines) {
+        return Flux.defer(() -> {
+            long[] rowNumber = {0};
+
+            return lines
+                    .filter(line -> !line.isBlank())
+                    .map(line -> {
+                        long row = ++rowNumber[0];
+                        try {
+                            return validate(row, objectMapper.readValue(line, LeadRequest.class));
+                        } catch (Exception e) {
+                            return ImportRow.invalid(row, "Malformed JSON");
+                        }
+                    });
+        });
+    }
+
+    private ImportRow validate(long row, LeadRequest request) {
+        Set<ConstraintViolation<LeadRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return ImportRow.invalid(row, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        if (request.getStatus() != null && LeadStatus.fromLabel(request.getStatus()).isEmpty()) {
+            return ImportRow.invalid(row, "Invalid status: " + request.getStatus());
+        }
+        return new ImportRow(row, request, null);
+    }
+
+    private Mono<ImportBatchResult> writeBatch(UUID userId, long batchNumber, List<ImportRow> batch) {
+        List<LeadRequest> valid = new ArrayList<>(batch.size());
+        List<ImportBatchResult.RowError> errors = new ArrayList<>();
+
+        for (ImportRow row : batch) {
+            if (row.error != null) {
+                errors.add(new ImportBatchResult.RowError(row.number, row.error));
+            } else {
+                valid.add(row.request);
+            }
+        }
+
+        ImportBatchResult.ImportBatchResultBuilder result = ImportBatchResult.builder()
+                .batch(batchNumber)
+                .firstRow(batch.get(0).number)
+                .lastRow(batch.get(batch.size() - 1).number)
+                .errors(errors);
+
+        if (valid.isEmpty()) {
+            return Mono.just(result.inserted(0).build());
+        }
+
+        return leadNumbers.next(valid.size())
+                .flatMap(numbers -> leadRepository.insertAll(userId, valid, numbers))
+                .map(inserted -> result.inserted(inserted).build())
+                .onErrorResume(e -> {
+                    log.warn("Import batch {} for user {} failed", batchNumber, userId, e);
+                    errors.add(new ImportBatchResult.RowError(0, "Batch could not be written; no rows inserted"));
+                    return Mono.just(result.inserted(0).build());
+                });
+    }
+
+    private static String column(List<String> record, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= record.size()) return null;
+
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static class ImportRow {
+        final long number;
+        final LeadRequest request;
+        final String error;
+
+        ImportRow(long number, LeadRequest request, String error) {
+            this.number = number;
+            this.request = request;
+            this.error = error;
+        }
+
+        static ImportRow invalid(long number, String error) {
+            return new ImportRow(number, null, error);
+        }
+    }
+}
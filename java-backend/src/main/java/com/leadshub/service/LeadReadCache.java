@@ -0,0 +1,116 @@
+package com.leadshub.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leadshub.dto.LeadProjection;
+import com.leadshub.dto.LeadsResponse;
+import com.leadshub.model.Lead;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Read-through cache for lead pages and details.
+ *
+ * <p>Entries are keyed by the user's lead_versions value, which the triggers on leads
+ * bump in the same transaction as every write, whichever instance or client made it.
+ * Callers read the version first; once a write has committed, every instance reads the
+ * new version, so all of the user's cached reads become unreachable at once and age
+ * out by TTL or weight. A read that races a write is stored under the version it read,
+ * which the write has already made stale.
+ */
+@Component
+public class LeadReadCache {
+
+    // Rough heap cost of a Lead without its strings, and of a page wrapper
+    private static final int LEAD_OVERHEAD_BYTES = 200;
+    private static final int PAGE_OVERHEAD_BYTES = 300;
+
+    private final boolean enabled;
+    private final Cache<Key, Object> cache;
+
+    public LeadReadCache(
+            @Value("${cache.leads.enabled:true}") boolean enabled,
+            @Value("${cache.leads.max-weight-mb:64}") long maxWeightMb,
+            @Value("${cache.leads.ttl:PT1M}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightMb * 1024 * 1024)
+                .weigher((Key key, Object value) -> weigh(value))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "lead.reads");
+    }
+
+    /**
+     * Serves {@code query} for the user from cache, subscribing to {@code loader}
+     * only on a miss. Empty and error results are not cached.
+     *
+     * @param version the user's lead_versions value, read before {@code loader} runs
+     * @param query any value with equals/hashCode that identifies the read
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(UUID userId, long version, Object query, Mono<T> loader) {
+        if (!enabled) {
+            return loader;
+        }
+
+        return Mono.defer(() -> {
+            Key key = new Key(userId, version, query);
+
+            T cached = (T) cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return loader.doOnNext(value -> cache.put(key, value));
+        });
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof Lead lead) {
+            return weigh(lead);
+        }
+        if (value instanceof LeadsResponse page) {
+            int bytes = PAGE_OVERHEAD_BYTES;
+            for (Object row : page.getData()) {
+                bytes += weigh(row);
+            }
+            return bytes;
+        }
+        if (value instanceof LeadProjection lead) {
+            int bytes = LEAD_OVERHEAD_BYTES;
+            for (Object field : lead.getFields().values()) {
+                if (field instanceof String text) bytes += 2 * text.length();
+            }
+            return bytes;
+        }
+        return PAGE_OVERHEAD_BYTES;
+    }
+
+    private static int weigh(Lead lead) {
+        return LEAD_OVERHEAD_BYTES + 2 * (
+                length(lead.getDisplayId())
+                        + length(lead.getName())
+                        + length(lead.getEmail())
+                        + length(lead.getCompany())
+                        + length(lead.getPhone())
+                        + length(lead.getNotes())
+        );
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private record Key(UUID userId, long version, Object query) {
+    }
+}
@@ -1,109 +1,271 @@
 package com.leadshub.service;
 
+import com.leadshub.dto.BulkLeadRequest;
+import com.leadshub.dto.BulkResult;
+import com.leadshub.dto.LeadChanges;
+import com.leadshub.dto.LeadCursor;
 import com.leadshub.dto.LeadRequest;
+import com.leadshub.dto.LeadStats;
+import com.leadshub.dto.LeadSuggestion;
 import com.leadshub.dto.LeadsResponse;
 import com.leadshub.model.Lead;
+import com.leadshub.model.LeadStatus;
+import com.leadshub.repository.LeadFields;
+import com.leadshub.repository.LeadFilter;
+import com.leadshub.repository.LeadNumberAllocator;
 import com.leadshub.repository.LeadRepository;
+import com.leadshub.repository.SearchMode;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class LeadService {
 
     private final LeadRepository leadRepository;
+    private final LeadNumberAllocator leadNumbers;
+    private final LeadSuggestIndex suggestIndex;
+    private final LeadStatsService leadStatsService;
+    private final LeadReadCache readCache;
+    private final int bulkChunkSize;
 
-    public LeadService(LeadRepository leadRepository) {
+    public LeadService(
+            LeadRepository leadRepository,
+            LeadNumberAllocator leadNumbers,
+            LeadSuggestIndex suggestIndex,
+            LeadStatsService leadStatsService,
+            LeadReadCache readCache,
+            @Value("${bulk.chunk-size:1000}") int bulkChunkSize
+    ) {
         this.leadRepository = leadRepository;
+        this.leadNumbers = leadNumbers;
+        this.suggestIndex = suggestIndex;
+        this.leadStatsService = leadStatsService;
+        this.readCache = readCache;
+        this.bulkChunkSize = bulkChunkSize;
     }
 
+    /**
+     * @param fields properties to return, or null for whole leads
+     * @param version the user's lead version from {@link #getVersion}, which keys the cached page
+     */
     public Mono<LeadsResponse> getLeads(
-            UUID userId,
-            String status,
-            String search,
-            OffsetDateTime dateFrom,
-            OffsetDateTime dateTo,
+            LeadFilter filter,
+            LeadFields fields,
             int page,
-            int pageSize
+            int pageSize,
+            CountMode countMode,
+            long version
     ) {
         int safePage = Math.max(page, 1);
+
+        return readCache.get(
+                filter.getUserId(),
+                version,
+                new PageQuery(filter, fields, safePage, pageSize, countMode),
+                Mono.defer(() -> loadLeads(filter, fields, safePage, pageSize, countMode))
+        );
+    }
+
+    private Mono<LeadsResponse> loadLeads(
+            LeadFilter filter,
+            LeadFields fields,
+            int safePage,
+            int pageSize,
+            CountMode countMode
+    ) {
         long offset = (long) (safePage - 1) * pageSize;
 
-        return leadRepository.countFiltered(userId, status, search, dateFrom, dateTo)
-                .flatMap(totalCount ->
-                        leadRepository
-                                .findAllFiltered(
-                                        userId,
-                                        status,
-                                        search,
-                                        dateFrom,
-                                        dateTo,
-                                        pageSize,
-                                        offset
-                                )
-                                .collectList()
-                                .map(leads ->
-                                        LeadsResponse.builder()
-                                                .data(leads)
-                                                .pagination(Map.of(
-                                                        "page", safePage,
-                                                        "page_size", pageSize,
-                                                        "total_count", totalCount,
-                                                        "total_pages",
-                                                        (int) Math.ceil((double) totalCount / pageSize)
-                                                ))
-                                                .build()
-                                )
-                );
-    }
-
-    public Mono<Lead> getLeadById(UUID id, UUID userId) {
-        return leadRepository
-                .findByIdAndUserId(id, userId)
+        if (countMode == CountMode.NONE) {
+            return findPage(filter, fields, pageSize + 1, offset)
+                    .collectList()
+                    .map(rows -> {
+                        boolean hasNext = rows.size() > pageSize;
+
+                        return LeadsResponse.builder()
+                                .data(hasNext ? rows.subList(0, pageSize) : rows)
+                                .pagination(Map.of(
+                                        "count_mode", countMode.label(),
+                                        "search_mode", filter.getSearchMode().label(),
+                                        "page", safePage,
+                                        "page_size", pageSize,
+                                        "has_next", hasNext
+                                ))
+                                .build();
+                    });
+        }
+
+        Mono<Long> total = countMode == CountMode.ESTIMATED
+                ? leadRepository.estimateFiltered(filter)
+                : leadRepository.countFiltered(filter);
+
+        // Count and page run on separate connections instead of back to back
+        return Mono.zip(
+                        total,
+                        findPage(filter, fields, pageSize, offset).collectList()
+                )
+                .map(tuple -> {
+                    long totalCount = tuple.getT1();
+
+                    return LeadsResponse.builder()
+                            .data(tuple.getT2())
+                            .pagination(Map.of(
+                                    "count_mode", countMode.label(),
+                                    "search_mode", filter.getSearchMode().label(),
+                                    "page", safePage,
+                                    "page_size", pageSize,
+                                    "total_count", totalCount,
+                                    "total_pages",
+                                    (int) Math.ceil((double) totalCount / pageSize)
+                            ))
+                            .build();
+                });
+    }
+
+    private Flux<?> findPage(LeadFilter filter, LeadFields fields, int limit, long offset) {
+        return fields == null
+                ? leadRepository.findFiltered(filter, limit, offset)
+                : leadRepository.findProjected(filter, fields, limit, offset);
+    }
+
+    /**
+     * Keyset variant of {@link #getLeads}: cost is independent of how deep the client
+     * has scrolled. A null cursor returns the first page. Always newest first,
+     * including full-text searches.
+     */
+    public Mono<LeadsResponse> getLeadsAfter(
+            LeadFilter filter,
+            LeadFields fields,
+            LeadCursor cursor,
+            int pageSize,
+            long version
+    ) {
+        return readCache.get(
+                filter.getUserId(),
+                version,
+                new CursorQuery(filter, fields, cursor != null ? cursor.encode() : null, pageSize),
+                Mono.defer(() -> fields == null
+                        ? loadLeadsAfter(filter, pageSize,
+                                leadRepository.findFilteredAfter(filter, cursor, pageSize + 1),
+                                lead -> new LeadCursor(lead.getCreatedAt(), lead.getId()))
+                        : loadLeadsAfter(filter, pageSize,
+                                leadRepository.findProjectedAfter(filter, fields, cursor, pageSize + 1),
+                                lead -> new LeadCursor(lead.getCreatedAt(), lead.getId())))
+        );
+    }
+
+    private <T> Mono<LeadsResponse> loadLeadsAfter(
+            LeadFilter filter,
+            int pageSize,
+            Flux<T> page,
+            Function<T, LeadCursor> position
+    ) {
+        return page
+                .collectList()
+                .map(rows -> {
+                    boolean hasNext = rows.size() > pageSize;
+                    List<T> leads = hasNext ? rows.subList(0, pageSize) : rows;
+
+                    String nextCursor = null;
+                    if (hasNext) {
+                        nextCursor = position.apply(leads.get(leads.size() - 1)).encode();
+                    }
+
+                    // LinkedHashMap: next_cursor is null on the last page
+                    Map<String, Object> pagination = new LinkedHashMap<>();
+                    pagination.put("mode", "cursor");
+                    pagination.put("search_mode", filter.getSearchMode().label());
+                    pagination.put("page_size", pageSize);
+                    pagination.put("next_cursor", nextCursor);
+
+                    return LeadsResponse.builder()
+                            .data(leads)
+                            .pagination(pagination)
+                            .build();
+                });
+    }
+
+    /**
+     * Typeahead over name, email and company, served from memory.
+     */
+    public Mono<List<LeadSuggestion>> suggest(UUID userId, String query, int limit) {
+        return suggestIndex.suggest(userId, query, limit);
+    }
+
+    /**
+     * Changes whenever any of the user's leads is written, from this instance or not.
+     */
+    public Mono<Long> getVersion(UUID userId) {
+        return leadRepository.findVersion(userId);
+    }
+
+    public Mono<LeadStats> getStats(UUID userId) {
+        return leadStatsService.getStats(userId);
+    }
+
+    public Mono<Lead> getLeadById(UUID id, UUID userId, long version) {
+        return readCache.get(userId, version, id, leadRepository.findByIdAndUserId(id, userId))
                 .switchIfEmpty(Mono.error(
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Lead not found")
                 ));
     }
 
     public Mono<Lead> createLead(UUID userId, LeadRequest request) {
-        OffsetDateTime now = OffsetDateTime.now();
+        LeadStatus status = request.getStatus() != null ? parseStatus(request.getStatus()) : LeadStatus.New;
 
-        Lead lead = Lead.builder()
-                .userId(userId)
-                .name(request.getName())
-                .email(request.getEmail())
-                .status(request.getStatus() != null ? request.getStatus() : "New")
-                .company(request.getCompany())
-                .phone(request.getPhone())
-                .notes(request.getNotes())
-                .createdAt(now)
-                .updatedAt(now)
-                .build();
+        return leadNumbers.next()
+                .flatMap(leadNumber -> {
+                    OffsetDateTime now = OffsetDateTime.now();
 
-        return leadRepository.save(lead);
+                    return leadRepository.save(Lead.builder()
+                            .userId(userId)
+                            .leadNumber(leadNumber)
+                            .displayId(LeadNumberAllocator.displayId(leadNumber))
+                            .name(request.getName())
+                            .email(request.getEmail())
+                            .status(status)
+                            .company(request.getCompany())
+                            .phone(request.getPhone())
+                            .notes(request.getNotes())
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .version(0L)
+                            .build());
+                })
+                .doOnNext(suggestIndex::put);
     }
 
-    public Mono<Lead> updateLead(UUID id, UUID userId, LeadRequest request) {
+    /**
+     * Partial update in one statement. With {@code changes.version} set, fails with
+     * 409 when the lead was updated since the client read it.
+     */
+    public Mono<Lead> updateLead(UUID id, UUID userId, LeadChanges changes) {
+        String problem = validate(changes);
+        if (problem != null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, problem));
+        }
+
         return leadRepository
-                .findByIdAndUserId(id, userId)
-                .switchIfEmpty(Mono.error(
-                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Lead not found")
-                ))
-                .flatMap(existing -> {
-                    if (request.getName() != null) existing.setName(request.getName());
-                    if (request.getEmail() != null) existing.setEmail(request.getEmail());
-                    if (request.getStatus() != null) existing.setStatus(request.getStatus());
-                    if (request.getCompany() != null) existing.setCompany(request.getCompany());
-                    if (request.getPhone() != null) existing.setPhone(request.getPhone());
-                    if (request.getNotes() != null) existing.setNotes(request.getNotes());
-                    existing.setUpdatedAt(OffsetDateTime.now());
-                    return leadRepository.save(existing);
-                });
+                .updateFields(id, userId, changes, changes.getVersion())
+                .switchIfEmpty(Mono.defer(() -> changes.getVersion() == null
+                        ? Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Lead not found"))
+                        // Only the failure path pays for telling 404 from 409
+                        : leadRepository.existsByIdAndUserId(id, userId)
+                                .flatMap(exists -> Mono.error(exists
+                                        ? new ResponseStatusException(HttpStatus.CONFLICT, "Lead was modified, reload and retry")
+                                        : new ResponseStatusException(HttpStatus.NOT_FOUND, "Lead not found")))))
+                .doOnNext(suggestIndex::put);
     }
 
     public Mono<Void> deleteLead(UUID id, UUID userId) {
@@ -111,6 +273,119 @@ public class LeadService {
                 .deleteByIdAndUserId(id, userId)
                 .switchIfEmpty(Mono.error(
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Lead not found")
-                ));
+                ))
+                .doOnNext(deleted -> suggestIndex.remove(userId, id))
+                .then();
+    }
+
+    /* =====================
+       BULK
+       ===================== */
+
+    /**
+     * Applies the same field changes to every selected lead, {@code bulk.chunk-size}
+     * rows per statement.
+     */
+    public Mono<BulkResult> bulkUpdate(UUID userId, BulkLeadRequest request) {
+        LeadChanges changes = request.getSet();
+        String problem = validate(changes);
+        if (problem != null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, problem));
+        }
+
+        return bulk(userId, request, () -> request.getIds() != null
+                ? Flux.fromIterable(request.getIds())
+                        .distinct()
+                        .buffer(bulkChunkSize)
+                        .concatMap(ids -> leadRepository.updateByIds(userId, ids, changes))
+                        .reduce(0L, Long::sum)
+                : updateChunks(toFilter(userId, request.getFilter()), changes, null, 0L));
+    }
+
+    public Mono<BulkResult> bulkDelete(UUID userId, BulkLeadRequest request) {
+        return bulk(userId, request, () -> request.getIds() != null
+                ? Flux.fromIterable(request.getIds())
+                        .distinct()
+                        .buffer(bulkChunkSize)
+                        .concatMap(ids -> leadRepository.deleteByIds(userId, ids))
+                        .reduce(0L, Long::sum)
+                : deleteChunks(toFilter(userId, request.getFilter()), null, 0L));
+    }
+
+    private Mono<BulkResult> bulk(UUID userId, BulkLeadRequest request, Supplier<Mono<Long>> affected) {
+        if ((request.getIds() == null) == (request.getFilter() == null)) {
+            return Mono.error(new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "Give either ids or filter"
+            ));
+        }
+
+        return Mono.defer(affected)
+                .map(BulkResult::new)
+                // Set-based writes bypass the per-lead index updates
+                .doFinally(signal -> suggestIndex.invalidate(userId));
+    }
+
+    /**
+     * @return why the changes can't be applied, or null if they can
+     */
+    private static String validate(LeadChanges changes) {
+        if (changes == null || changes.isEmpty()) {
+            return "No changes given";
+        }
+        if (changes.getStatus() != null && LeadStatus.fromLabel(changes.getStatus()).isEmpty()) {
+            return "Invalid status";
+        }
+        return null;
+    }
+
+    private Mono<Long> updateChunks(LeadFilter filter, LeadChanges changes, UUID afterId, long total) {
+        return leadRepository.updateChunk(filter, changes, afterId, bulkChunkSize)
+                .flatMap(chunk -> chunk.getScanned() < bulkChunkSize
+                        ? Mono.just(total + chunk.getAffected())
+                        : updateChunks(filter, changes, chunk.getLastId(), total + chunk.getAffected()));
+    }
+
+    private Mono<Long> deleteChunks(LeadFilter filter, UUID afterId, long total) {
+        return leadRepository.deleteChunk(filter, afterId, bulkChunkSize)
+                .flatMap(chunk -> chunk.getScanned() < bulkChunkSize
+                        ? Mono.just(total + chunk.getAffected())
+                        : deleteChunks(filter, chunk.getLastId(), total + chunk.getAffected()));
+    }
+
+    private static LeadStatus parseStatus(String label) {
+        return LeadStatus.fromLabel(label)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status"));
+    }
+
+    private static LeadFilter toFilter(UUID userId, BulkLeadRequest.Filter filter) {
+        SearchMode searchMode;
+        try {
+            // An explicit "searchMode": null means the default, like an absent one
+            searchMode = filter.getSearchMode() != null
+                    ? SearchMode.from(filter.getSearchMode())
+                    : SearchMode.ILIKE;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search mode");
+        }
+
+        return LeadFilter.builder()
+                .userId(userId)
+                .status(filter.getStatus() != null ? parseStatus(filter.getStatus()) : null)
+                .search(filter.getSearch())
+                .searchMode(searchMode)
+                .dateFrom(filter.getDateFrom())
+                .dateTo(filter.getDateTo())
+                .includeArchived(filter.isIncludeArchived())
+                .build();
+    }
+
+    /* =====================
+       CACHE KEYS
+       ===================== */
+
+    private record PageQuery(LeadFilter filter, LeadFields fields, int page, int pageSize, CountMode countMode) {
+    }
+
+    private record CursorQuery(LeadFilter filter, LeadFields fields, String cursor, int pageSize) {
     }
 }
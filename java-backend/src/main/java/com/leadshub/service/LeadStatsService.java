@@ -0,0 +1,122 @@
+package com.leadshub.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leadshub.dto.LeadStats;
+import com.leadshub.model.LeadStatus;
+import com.leadshub.repository.LeadRepository;
+import com.leadshub.repository.StatusCount;
+import com.leadshub.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pipeline totals for the dashboard. Counts come from lead_status_counts, which
+ * triggers on leads keep current for every write path (single, bulk, import);
+ * this class only caches them per user.
+ *
+ * <p>Cached totals are tagged with the user's lead_versions value, read before the
+ * counts, like {@link LeadReadCache} entries. A write from any instance or client
+ * bumps the version, so the next call recounts; totals loaded while a write was
+ * committing carry the version from before it and are never served after it.
+ */
+@Slf4j
+@Service
+public class LeadStatsService {
+
+    private final LeadRepository leadRepository;
+    private final UserRepository userRepository;
+    private final Cache<UUID, VersionedStats> cache;
+
+    public LeadStatsService(
+            LeadRepository leadRepository,
+            UserRepository userRepository,
+            @Value("${stats.cache-size:10000}") long cacheSize,
+            @Value("${stats.cache-ttl:PT30S}") Duration cacheTtl,
+            MeterRegistry meterRegistry
+    ) {
+        this.leadRepository = leadRepository;
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                // Bounds staleness after a reconcile on another instance; repairs don't bump lead_versions
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "lead.stats");
+    }
+
+    public Mono<LeadStats> getStats(UUID userId) {
+        return leadRepository.findVersion(userId).flatMap(version -> {
+            VersionedStats cached = cache.getIfPresent(userId);
+            if (cached != null && cached.version() == version) {
+                return Mono.just(cached.stats());
+            }
+
+            return leadRepository.countByStatus(userId)
+                    .collectList()
+                    .map(LeadStatsService::toStats)
+                    // A slower load of an older version must not replace a newer entry
+                    .doOnNext(stats -> cache.asMap().merge(userId, new VersionedStats(version, stats),
+                            (old, loaded) -> old.version() > loaded.version() ? old : loaded));
+        });
+    }
+
+    /**
+     * Repairs counters that drifted, e.g. after writes made with the triggers disabled.
+     * One user per statement, so each user's counters are locked only for their recount.
+     */
+    @Scheduled(
+            initialDelayString = "${stats.reconcile-interval:PT1H}",
+            fixedDelayString = "${stats.reconcile-interval:PT1H}"
+    )
+    public Mono<Void> reconcile() {
+        return userRepository.findAllIds()
+                .concatMap(leadRepository::reconcileStatusCounts)
+                .reduce(0L, Long::sum)
+                .doOnNext(fixed -> {
+                    if (fixed > 0) {
+                        log.warn("Reconciled {} drifted lead status counters", fixed);
+                        cache.invalidateAll();
+                    }
+                })
+                .then();
+    }
+
+    private static LeadStats toStats(List<StatusCount> rows) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (LeadStatus status : LeadStatus.values()) {
+            byStatus.put(status.getLabel(), 0L);
+        }
+        for (StatusCount row : rows) {
+            byStatus.put(row.getStatus(), row.getCount());
+        }
+
+        long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        long won = byStatus.get(LeadStatus.Closed_Won.getLabel());
+        long lost = byStatus.get(LeadStatus.Closed_Lost.getLabel());
+
+        return LeadStats.builder()
+                .total(total)
+                .active(total - won - lost)
+                .won(won)
+                .lost(lost)
+                .byStatus(byStatus)
+                .build();
+    }
+
+    private record VersionedStats(long version, LeadStats stats) {
+    }
+}
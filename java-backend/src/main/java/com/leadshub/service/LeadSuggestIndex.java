@@ -0,0 +1,302 @@
+package com.leadshub.service;
+
+import com.leadshub.dto.LeadSuggestion;
+import com.leadshub.model.Lead;
+import com.leadshub.repository.LeadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process prefix index over lead name, email and company, one per user.
+ * <p>
+ * A user's index is loaded from Postgres on their first suggest call and then kept
+ * current by {@link LeadService} writes. Every suggest call compares the user's
+ * lead_versions row with the version the index was loaded at plus the writes applied
+ * since, and reloads the index when they differ, so writes from other instances, the
+ * archiver or outside the app are picked up. Least recently used users are dropped
+ * once the estimated footprint exceeds {@code suggest.memory-budget-mb}.
+ */
+@Component
+public class LeadSuggestIndex {
+
+    private final LeadRepository leadRepository;
+    private final long budgetBytes;
+
+    // Access-ordered, so iteration starts at the coldest user. Guarded by this.
+    private final LinkedHashMap<UUID, UserIndex> users = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Estimated footprint of the indexes in users, kept current by the indexes themselves
+    private final AtomicLong weight = new AtomicLong();
+
+    public LeadSuggestIndex(
+            LeadRepository leadRepository,
+            @Value("${suggest.memory-budget-mb:64}") long budgetMb
+    ) {
+        this.leadRepository = leadRepository;
+        this.budgetBytes = budgetMb * 1024 * 1024;
+    }
+
+    public Mono<List<LeadSuggestion>> suggest(UUID userId, String query, int limit) {
+        List<String> prefixes = tokens(query);
+        if (prefixes.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return indexFor(userId).map(index -> index.search(prefixes, limit));
+    }
+
+    /**
+     * Applies a created or updated lead, if its owner's index is loaded. Call it once
+     * per statement that wrote the lead: lead_versions counts statements, and so does the index.
+     */
+    public void put(Lead lead) {
+        UserIndex index = loaded(lead.getUserId());
+        if (index != null) {
+            index.put(toSuggestion(lead));
+            // Creates grow a loaded index past the budget as well as loads do
+            if (weight.get() > budgetBytes) trim();
+        }
+    }
+
+    public void remove(UUID userId, UUID leadId) {
+        UserIndex index = loaded(userId);
+        if (index != null) index.remove(leadId);
+    }
+
+    /**
+     * Drops a user's index after changes that bypassed {@link #put}, such as bulk writes.
+     */
+    public synchronized void invalidate(UUID userId) {
+        UserIndex index = users.remove(userId);
+        if (index != null) index.evict();
+    }
+
+    private synchronized UserIndex loaded(UUID userId) {
+        return users.get(userId);
+    }
+
+    private Mono<UserIndex> indexFor(UUID userId) {
+        // Read before the leads, so a write in between makes the index look stale, not current
+        return leadRepository.findVersion(userId).flatMap(version -> {
+            UserIndex index;
+            synchronized (this) {
+                index = users.get(userId);
+                if (index == null || index.version != version) {
+                    if (index != null) index.evict();
+                    index = new UserIndex(weight, version);
+                    users.put(userId, index);
+                }
+            }
+
+            if (index.ready == null) {
+                synchronized (index) {
+                    if (index.ready == null) {
+                        UserIndex target = index;
+                        index.ready = leadRepository.findByUserId(userId)
+                                .doOnNext(lead -> target.load(toSuggestion(lead)))
+                                .then(Mono.fromCallable(() -> {
+                                    target.loadDone();
+                                    if (weight.get() > budgetBytes) trim();
+                                    return target;
+                                }))
+                                .doOnError(e -> drop(userId, target))
+                                .cache();
+                    }
+                }
+            }
+            return index.ready;
+        });
+    }
+
+    private synchronized void drop(UUID userId, UserIndex index) {
+        if (users.remove(userId, index)) index.evict();
+    }
+
+    private synchronized void trim() {
+        Iterator<UserIndex> coldest = users.values().iterator();
+        // Never evict the most recently used user, even if it alone exceeds the budget
+        while (weight.get() > budgetBytes && users.size() > 1 && coldest.hasNext()) {
+            UserIndex index = coldest.next();
+            coldest.remove();
+            index.evict();
+        }
+    }
+
+    private static LeadSuggestion toSuggestion(Lead lead) {
+        return LeadSuggestion.builder()
+                .id(lead.getId())
+                .displayId(lead.getDisplayId())
+                .name(lead.getName())
+                .email(lead.getEmail())
+                .company(lead.getCompany())
+                .build();
+    }
+
+    static List<String> tokens(String text) {
+        if (text == null) return List.of();
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static Set<String> terms(LeadSuggestion entry) {
+        Set<String> terms = new LinkedHashSet<>(tokens(entry.getName()));
+        terms.addAll(tokens(entry.getCompany()));
+        if (entry.getEmail() != null) {
+            terms.add(entry.getEmail().toLowerCase());
+            terms.addAll(tokens(entry.getEmail()));
+        }
+        return terms;
+    }
+
+    /**
+     * Term → lead ids for a single user. Reads are lock-free; writes are serialised.
+     */
+    static class UserIndex {
+
+        private static final long ENTRY_OVERHEAD = 160;
+        private static final long TERM_OVERHEAD = 96;
+
+        private final NavigableMap<String, Set<UUID>> postings = new ConcurrentSkipListMap<>();
+        private final Map<UUID, LeadSuggestion> entries = new ConcurrentHashMap<>();
+
+        // Running total of all loaded indexes; this one's weight counts towards it until evicted
+        private final AtomicLong total;
+        private long weight;
+        private boolean evicted;
+
+        // Ids written while the initial load is running; the load must not overwrite them
+        private Set<UUID> touchedDuringLoad = new HashSet<>();
+
+        volatile Mono<UserIndex> ready;
+
+        // lead_versions when loading started, plus one per put or remove since
+        volatile long version;
+
+        UserIndex(AtomicLong total, long version) {
+            this.total = total;
+            this.version = version;
+        }
+
+        synchronized void load(LeadSuggestion entry) {
+            if (touchedDuringLoad != null && !touchedDuringLoad.contains(entry.getId())) {
+                add(entry);
+            }
+        }
+
+        synchronized void loadDone() {
+            touchedDuringLoad = null;
+        }
+
+        synchronized void put(LeadSuggestion entry) {
+            if (touchedDuringLoad != null) touchedDuringLoad.add(entry.getId());
+            unindex(entry.getId());
+            add(entry);
+            version++;
+        }
+
+        synchronized void remove(UUID id) {
+            if (touchedDuringLoad != null) touchedDuringLoad.add(id);
+            unindex(id);
+            version++;
+        }
+
+        private void unindex(UUID id) {
+            LeadSuggestion old = entries.remove(id);
+            if (old == null) return;
+
+            for (String term : terms(old)) {
+                postings.computeIfPresent(term, (t, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+            resize(-weigh(old));
+        }
+
+        /**
+         * Takes this index's weight out of the total. Writes that still reach it,
+         * through a reference taken before the eviction, no longer count.
+         */
+        synchronized void evict() {
+            evicted = true;
+            total.addAndGet(-weight);
+        }
+
+        private void add(LeadSuggestion entry) {
+            entries.put(entry.getId(), entry);
+            for (String term : terms(entry)) {
+                postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(entry.getId());
+            }
+            resize(weigh(entry));
+        }
+
+        private void resize(long delta) {
+            weight += delta;
+            if (!evicted) total.addAndGet(delta);
+        }
+
+        /**
+         * Walks the terms under the first prefix in order; every other prefix must
+         * match some term of the same lead.
+         */
+        List<LeadSuggestion> search(List<String> prefixes, int limit) {
+            String first = prefixes.get(0);
+            List<String> rest = prefixes.subList(1, prefixes.size());
+
+            Set<UUID> seen = new LinkedHashSet<>();
+            List<LeadSuggestion> results = new ArrayList<>(limit);
+
+            for (Set<UUID> ids : postings.subMap(first, true, first + Character.MAX_VALUE, false).values()) {
+                for (UUID id : ids) {
+                    if (!seen.add(id)) continue;
+
+                    LeadSuggestion entry = entries.get(id);
+                    if (entry == null || !matchesAll(entry, rest)) continue;
+
+                    results.add(entry);
+                    if (results.size() >= limit) return results;
+                }
+            }
+            return results;
+        }
+
+        private static boolean matchesAll(LeadSuggestion entry, List<String> prefixes) {
+            if (prefixes.isEmpty()) return true;
+
+            Set<String> terms = terms(entry);
+            for (String prefix : prefixes) {
+                if (terms.stream().noneMatch(term -> term.startsWith(prefix))) return false;
+            }
+            return true;
+        }
+
+        private static long weigh(LeadSuggestion entry) {
+            long chars = length(entry.getName()) + length(entry.getEmail())
+                    + length(entry.getCompany()) + length(entry.getDisplayId());
+            // Strings are stored once in the entry and again as terms
+            return ENTRY_OVERHEAD + 4 * chars + TERM_OVERHEAD * terms(entry).size();
+        }
+
+        private static int length(String value) {
+            return value != null ? value.length() : 0;
+        }
+    }
+}
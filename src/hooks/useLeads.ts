@@ -2,6 +2,7 @@ import { useState, useEffect, useCallback } from 'react';
 import { supabase } from '@/integrations/supabase/client';
 import { Lead, LeadStatus, CreateLeadInput, UpdateLeadInput, LeadFilters, DEFAULT_PAGE_SIZE } from '@/types/lead';
 import { useMessageDialog } from '@/components/ui/message-dialog';
+import { subscribeToLeadChanges } from '@/services/leadChanges';
 
 export function useLeads(userId: string | undefined, filters: LeadFilters = {}) {
   const [leads, setLeads] = useState<Lead[]>([]);
@@ -78,6 +79,12 @@ export function useLeads(userId: string | undefined, filters: LeadFilters = {})
     fetchLeads();
   }, [fetchLeads]);
 
+  // Writes from other tabs and devices; needs a session with the leads API
+  useEffect(() => {
+    if (!userId || !localStorage.getItem('token')) return;
+    return subscribeToLeadChanges(() => fetchLeads());
+  }, [userId, fetchLeads]);
+
   const createLead = async (input: CreateLeadInput): Promise<Lead | null> => {
     if (!userId) return null;
     
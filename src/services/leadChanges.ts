@@ -0,0 +1,52 @@
+const API_BASE_URL = 'http://localhost:8081';
+
+const CHANGE_EVENTS = ['created', 'updated', 'deleted', 'resync'] as const;
+
+export interface LeadChange {
+  type: (typeof CHANGE_EVENTS)[number];
+  ids?: string[] | null;
+}
+
+// EventSource cannot send the Authorization header, so each connection opens with a
+// single-use stream token from POST /api/leads/changes/token. A dropped connection
+// can't reuse its token and is reopened with a fresh one.
+export function subscribeToLeadChanges(onChange: (change: LeadChange) => void, retryMs = 5000): () => void {
+  let source: EventSource | null = null;
+  let retry: ReturnType<typeof setTimeout> | undefined;
+  let closed = false;
+
+  const schedule = () => {
+    if (!closed) retry = setTimeout(connect, retryMs);
+  };
+
+  async function connect() {
+    try {
+      const res = await fetch(`${API_BASE_URL}/api/leads/changes/token`, {
+        method: 'POST',
+        headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+      });
+      if (!res.ok) throw new Error(`stream token: ${res.status}`);
+      const { token } = await res.json();
+      if (closed) return;
+
+      source = new EventSource(`${API_BASE_URL}/api/leads/changes?stream_token=${encodeURIComponent(token)}`);
+      CHANGE_EVENTS.forEach((type) =>
+        source!.addEventListener(type, (e) => onChange({ type, ...JSON.parse((e as MessageEvent).data) }))
+      );
+      source.onerror = () => {
+        source?.close();
+        schedule();
+      };
+    } catch {
+      schedule();
+    }
+  }
+
+  connect();
+
+  return () => {
+    closed = true;
+    clearTimeout(retry);
+    source?.close();
+  };
+}